@@ -0,0 +1,86 @@
+package com.example.Restaurant.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The AsyncConfig class defines the thread pools used for work that runs off the request thread.
+ *
+ * Main Responsibilities:
+ * - Provide the "imageExecutor" pool that resizes and compresses uploaded food images, so an
+ *   upload returns as soon as the original is stored.
+ * - Provide the single-threaded "eventExecutor" that sends WebSocket events after their
+ *   transaction has completed, so requests do not pay for broadcasting.
+ *
+ * Component Relationships:
+ * - ImageService: Submits one variant generation task per stored image.
+ * - DomainEventPublisher: Submits the events of each completed transaction as one task.
+ *
+ * Required Dependencies:
+ * - Spring Context
+ *
+ * Security Notes:
+ * - The queues are bounded. When the image queue is full new tasks are rejected and the original
+ *   image is served instead; when the event queue is full the completing thread waits for room, so
+ *   events are never dropped or sent out of order.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Creates the pool that generates image variants.
+     * Image scaling is CPU-bound, so the pool is small and its queue bounded.
+     *
+     * @param threads the number of worker threads
+     * @param queueCapacity the number of tasks that may wait for a worker
+     * @return the image executor
+     */
+    @Bean(name = "imageExecutor")
+    public ThreadPoolTaskExecutor imageExecutor(@Value("${restaurant.images.worker-threads:2}") int threads,
+                                                @Value("${restaurant.images.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setWaitForTasksToCompleteOnShutdown(true); // Do not leave half-written variants behind.
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Creates the executor that publishes domain events.
+     * A single thread keeps events in the order their transactions completed. A full queue blocks
+     * the submitting thread until there is room: running the task on the caller instead would
+     * number its events ahead of older queued ones.
+     *
+     * @param queueCapacity the number of event batches that may wait
+     * @return the event executor
+     */
+    @Bean(name = "eventExecutor")
+    public ThreadPoolTaskExecutor eventExecutor(@Value("${restaurant.events.publisher-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("events-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Event executor has been shut down");
+            }
+            try {
+                pool.getQueue().put(task); // Wait for room, keeping the order of submission.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for the event queue", e);
+            }
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true); // Send what was committed before shutting down.
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
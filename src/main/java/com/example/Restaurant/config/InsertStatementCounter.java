@@ -0,0 +1,49 @@
+package com.example.Restaurant.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * The InsertStatementCounter class counts the INSERT statements Hibernate prepares on the current thread.
+ *
+ * Main Responsibilities:
+ * - Let OrderService report how many rows each checkout wrote per INSERT statement,
+ *   which shows whether JDBC batching is in effect.
+ *
+ * Component Relationships:
+ * - Registered with Hibernate by JpaBatchConfig.
+ * - With batching enabled Hibernate prepares one statement per batch, so the count is
+ *   the number of statements sent, not the number of rows.
+ *
+ * Security Considerations:
+ * - SQL is inspected only, never modified.
+ */
+public class InsertStatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<int[]> INSERTS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        if (sql.regionMatches(true, 0, "insert", 0, 6)) {
+            INSERTS.get()[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Resets the counter of the current thread.
+     */
+    public static void reset() {
+        INSERTS.get()[0] = 0;
+    }
+
+    /**
+     * Gets the number of INSERT statements prepared on the current thread since the last reset.
+     *
+     * @return the number of INSERT statements
+     */
+    public static int getCount() {
+        return INSERTS.get()[0];
+    }
+}
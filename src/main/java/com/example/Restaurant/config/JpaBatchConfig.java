@@ -0,0 +1,86 @@
+package com.example.Restaurant.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The JpaBatchConfig class configures Hibernate for batched order inserts.
+ *
+ * Main Responsibilities:
+ * - Register the InsertStatementCounter with Hibernate.
+ * - Move the pooled ID sequences of Order and OrderItem past the IDs already in the
+ *   database, since databases created before the switch from IDENTITY start them at 1.
+ *
+ * Component Relationships:
+ * - The batch size and statement ordering are set in application.properties
+ *   (spring.jpa.properties.hibernate.jdbc.*).
+ *
+ * Required Dependencies:
+ * - Spring Boot JPA auto-configuration
+ * - JdbcTemplate
+ */
+@Configuration
+public class JpaBatchConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaBatchConfig.class);
+
+    /**
+     * Must match the allocationSize of the @SequenceGenerator mappings.
+     */
+    private static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * Registers the INSERT statement counter with Hibernate.
+     *
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer insertStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new InsertStatementCounter());
+    }
+
+    /**
+     * Aligns the order ID sequences with the existing rows before any order is placed.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to read and restart the sequences
+     * @return the startup runner
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner idSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            alignSequence(jdbcTemplate, "customer_orders", "customer_orders_seq");
+            alignSequence(jdbcTemplate, "order_item", "order_item_seq");
+        };
+    }
+
+    /**
+     * Restarts a sequence so the next block of IDs handed out lies above the highest existing ID.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to read and restart the sequence
+     * @param table the table whose IDs come from the sequence
+     * @param sequence the name of the sequence
+     */
+    private void alignSequence(JdbcTemplate jdbcTemplate, String table, String sequence) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Long nextValue = jdbcTemplate.queryForObject(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(?)",
+                    Long.class, sequence);
+            // Hibernate's pooled optimizer uses (value - ALLOCATION_SIZE + 1)..value, so the first block must start above maxId.
+            if (maxId > 0 && nextValue != null && nextValue < maxId + ALLOCATION_SIZE) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ALLOCATION_SIZE));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not align sequence {} with table {}", sequence, table, e);
+        }
+    }
+}
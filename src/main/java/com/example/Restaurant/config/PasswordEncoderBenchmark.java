@@ -0,0 +1,88 @@
+package com.example.Restaurant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The PasswordEncoderBenchmark class measures how long one password hash takes for each
+ * supported algorithm and cost on the machine the application runs on.
+ *
+ * Main Responsibilities:
+ * - Hash a sample password with BCrypt strengths 10 to 14, PBKDF2 at 310k and 600k iterations,
+ *   Argon2 (when BouncyCastle is present) and the configured encoder, and log the average time.
+ *
+ * Component Relationships:
+ * - The numbers guide the restaurant.security.password.* settings read by SecurityConfig.
+ *   Every login and every created or updated user pays one hash; aim for a few hundred
+ *   milliseconds at most on the production hardware.
+ *
+ * Required Dependencies:
+ * - Spring Security Crypto
+ *
+ * Usage:
+ * - Start the application with --restaurant.security.password.benchmark=true; the results are
+ *   logged once at startup. The benchmark is off by default.
+ */
+@Component
+@ConditionalOnProperty(name = "restaurant.security.password.benchmark", havingValue = "true")
+public class PasswordEncoderBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderBenchmark.class);
+
+    private static final String SAMPLE_PASSWORD = "correct horse battery staple";
+
+    private final PasswordEncoder configuredEncoder;
+    private final int rounds;
+
+    public PasswordEncoderBenchmark(PasswordEncoder configuredEncoder,
+                                    @Value("${restaurant.security.password.benchmark-rounds:5}") int rounds) {
+        this.configuredEncoder = configuredEncoder;
+        this.rounds = rounds;
+    }
+
+    @Override
+    public void run(String... args) {
+        Map<String, PasswordEncoder> candidates = new LinkedHashMap<>();
+        for (int strength = 10; strength <= 14; strength++) {
+            candidates.put("bcrypt strength=" + strength, new BCryptPasswordEncoder(strength));
+        }
+        for (int iterations : new int[]{310_000, 600_000}) {
+            candidates.put("pbkdf2-sha256 iterations=" + iterations, new Pbkdf2PasswordEncoder("", 16, iterations,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        }
+        if (SecurityConfig.ARGON2_AVAILABLE) {
+            candidates.put("argon2 memory=19456KB iterations=2", new Argon2PasswordEncoder(16, 32, 1, 19456, 2));
+            candidates.put("argon2 memory=65536KB iterations=3", new Argon2PasswordEncoder(16, 32, 1, 65536, 3));
+        } else {
+            log.info("Argon2 skipped: BouncyCastle is not on the classpath");
+        }
+        candidates.put("configured", configuredEncoder);
+
+        log.info("Password hash benchmark, {} rounds per setting after one warm-up, {} CPUs",
+                rounds, Runtime.getRuntime().availableProcessors());
+        candidates.forEach((setting, encoder) -> {
+            String hash = encoder.encode(SAMPLE_PASSWORD); // Warm-up.
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                hash = encoder.encode(SAMPLE_PASSWORD);
+            }
+            double encodeMillis = (System.nanoTime() - start) / 1e6 / rounds;
+            start = System.nanoTime();
+            boolean matches = encoder.matches(SAMPLE_PASSWORD, hash);
+            double matchMillis = (System.nanoTime() - start) / 1e6;
+            log.info(String.format("  %-36s encode %8.1f ms   matches %8.1f ms%s",
+                    setting, encodeMillis, matchMillis, matches ? "" : "   MISMATCH"));
+        });
+    }
+}
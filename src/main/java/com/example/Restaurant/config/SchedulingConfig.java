@@ -0,0 +1,18 @@
+package com.example.Restaurant.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The SchedulingConfig class enables Spring's scheduled task support for the application.
+ *
+ * Main Responsibilities:
+ * - Turn on processing of @Scheduled methods (e.g. the stock ledger's write-behind flush).
+ *
+ * Required Dependencies:
+ * - Spring Context
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,8 @@
 package com.example.Restaurant.config;
 
+import com.example.Restaurant.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,9 +13,17 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Security configuration for the restaurant application.
@@ -26,13 +36,46 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Whether BouncyCastle, which Argon2PasswordEncoder needs at runtime, is on the classpath.
+     */
+    static final boolean ARGON2_AVAILABLE =
+            ClassUtils.isPresent("org.bouncycastle.crypto.generators.Argon2BytesGenerator", SecurityConfig.class.getClassLoader());
+
     /**
      * Creates a password encoder for secure password hashing.
-     * Uses BCrypt algorithm for password encryption.
+     * New hashes use the configured algorithm and cost and are stored with an "{id}" prefix;
+     * existing hashes of any supported algorithm, including the unprefixed BCrypt hashes of
+     * older accounts, still match. Logins with a hash of another algorithm or a lower BCrypt
+     * strength or Argon2 cost are re-hashed (see CustomUserDetailsService.updatePassword).
+     * PBKDF2 hashes do not record their iteration count, so changing it only affects new hashes.
+     * Run PasswordEncoderBenchmark to pick a cost for the hardware.
      */
     @Bean
-    public static PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static PasswordEncoder passwordEncoder(
+            @Value("${restaurant.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${restaurant.security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${restaurant.security.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+            @Value("${restaurant.security.password.argon2-memory-kb:19456}") int argon2MemoryKb,
+            @Value("${restaurant.security.password.argon2-iterations:2}") int argon2Iterations) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (ARGON2_AVAILABLE) {
+            encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKb, argon2Iterations));
+        }
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password algorithm: " + algorithm
+                    + (algorithm.equals("argon2") ? " (add org.bouncycastle:bcprov-jdk18on to the classpath)" : ""));
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt); // Hashes stored before the "{id}" prefix was introduced.
+        return encoder;
     }
 
     /**
@@ -40,10 +83,10 @@ public class SecurityConfig {
      * This manages how users are authenticated in the system.
      */
     @Bean
-    public AuthenticationManager authManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
                 .userDetailsService(userDetailsService)
-                .passwordEncoder(passwordEncoder())
+                .passwordEncoder(passwordEncoder)
                 .and()
                 .build();
     }
@@ -61,6 +104,15 @@ public class SecurityConfig {
         return false;
     }
 
+    /**
+     * Publishes the creation and destruction of HTTP sessions as application events,
+     * so CartService can drop the cart of a session that was invalidated or timed out.
+     */
+    @Bean
+    public HttpSessionEventPublisher httpSessionEventPublisher() {
+        return new HttpSessionEventPublisher();
+    }
+
     /**
      * Configures security settings for the application.
      * This includes URL access rules, login behavior, and access denied handling.
@@ -74,6 +126,8 @@ public class SecurityConfig {
                 .headers(headers -> headers.frameOptions().sameOrigin())
                 // Configure URL access rules
                 .authorizeHttpRequests(auth -> auth
+                        // Monitoring endpoints list user names, addresses and cache contents; checked before the public pages
+                        .requestMatchers("/api/websocket/stats", "/api/*/cache-stats").hasRole("ADMIN")
                         // Public pages that don't require login
                         .requestMatchers(
                                 "/**",
@@ -113,6 +167,9 @@ public class SecurityConfig {
                         .loginPage("/login")
                         .permitAll()
                         .successHandler((request, response, authentication) -> {
+                            // Queue the login time; it is written in the background
+                            userService.updateLastLogin(authentication.getName());
+
                             // Check for saved redirect URL
                             String redirectUrl = (String) request.getSession().getAttribute("REDIRECT_URL");
                             if (redirectUrl != null) {
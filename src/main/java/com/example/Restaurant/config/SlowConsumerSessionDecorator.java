@@ -0,0 +1,277 @@
+package com.example.Restaurant.config;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A WebSocket session wrapper that serializes sends and applies a slow-consumer policy.
+ *
+ * Works like Spring's ConcurrentWebSocketSessionDecorator: the thread that finds the session
+ * idle sends, every other thread only appends to a buffer and returns, so one slow client never
+ * blocks the outbound channel threads serving everybody else. The difference is what happens
+ * when the client falls behind:
+ * - Policy.DISCONNECT closes the session once the buffer exceeds its size limit.
+ * - Policy.COALESCE drops the buffered events of the sequenced streams (STOMP MESSAGE frames
+ *   with a "seq" header, see EventStreamService) and keeps only the newest frame of each
+ *   subscription, marked with a "resync" header. The marker tells the client to replay the
+ *   stream from its last applied event, so nothing is lost, only delivered later in one replay.
+ *   If the buffer still exceeds the limit, e.g. because of replies that cannot be replayed,
+ *   the session is closed and the client resumes after reconnecting.
+ * With either policy a send blocked for longer than the time limit closes the session.
+ *
+ * The session also counts queued, sent and dropped messages for WebSocketMetricsService.
+ */
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+
+    /**
+     * What to do when a client cannot keep up.
+     */
+    public enum Policy {
+        COALESCE,
+        DISCONNECT
+    }
+
+    private static final String STOMP_MESSAGE = "MESSAGE\n";
+    private static final String SEQ_HEADER_PREFIX = "seq:";
+    private static final String SUBSCRIPTION_HEADER_PREFIX = "subscription:";
+    private static final String RESYNC_HEADER = "resync:true\n";
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final Policy policy;
+
+    private final Deque<WebSocketMessage<?>> buffer = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger bufferSize = new AtomicInteger(); // Bytes in the buffer.
+    private final AtomicInteger bufferCount = new AtomicInteger(); // Messages in the buffer.
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+    private volatile boolean closeInProgress;
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock closeLock = new ReentrantLock();
+
+    /**
+     * Wraps a session.
+     *
+     * @param delegate the session to wrap
+     * @param sendTimeLimit the longest a single send may block, in milliseconds
+     * @param bufferSizeLimit the most bytes buffered for a slow client
+     * @param policy what to do when the buffer limit is exceeded
+     */
+    public SlowConsumerSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit, Policy policy) {
+        super(delegate);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.policy = policy;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (limitExceeded || closeInProgress) {
+            return;
+        }
+        buffer.add(message);
+        bufferSize.addAndGet(message.getPayloadLength());
+        bufferCount.incrementAndGet();
+        do {
+            if (!tryFlushBuffer()) {
+                checkLimits(); // Another thread is sending; it will pick up our message.
+                break;
+            }
+        }
+        while (!buffer.isEmpty() && !limitExceeded && !closeInProgress);
+    }
+
+    private boolean tryFlushBuffer() throws IOException {
+        if (!flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            WebSocketMessage<?> message;
+            while (!limitExceeded && !closeInProgress && (message = buffer.poll()) != null) {
+                bufferSize.addAndGet(-message.getPayloadLength());
+                bufferCount.decrementAndGet();
+                sendStartTime = System.currentTimeMillis();
+                getDelegate().sendMessage(message);
+                sendStartTime = 0;
+                sent.increment();
+            }
+            return true;
+        } finally {
+            sendStartTime = 0;
+            flushLock.unlock();
+        }
+    }
+
+    private void checkLimits() {
+        if (limitExceeded || !closeLock.tryLock()) {
+            return;
+        }
+        try {
+            if (getTimeSinceSendStarted() > sendTimeLimit) {
+                limitExceeded("Send time " + getTimeSinceSendStarted() + " (ms) for session '"
+                        + getId() + "' exceeded the allowed limit " + sendTimeLimit);
+            } else if (bufferSize.get() > bufferSizeLimit) {
+                if (policy == Policy.DISCONNECT) {
+                    limitExceeded("Buffer size " + bufferSize.get() + " bytes for session '"
+                            + getId() + "' exceeds the allowed limit " + bufferSizeLimit);
+                } else {
+                    coalesceSequencedMessages();
+                }
+            }
+        } finally {
+            closeLock.unlock();
+        }
+    }
+
+    private void coalesceSequencedMessages() {
+        Map<String, TextMessage> newestBySubscription = new LinkedHashMap<>();
+        for (WebSocketMessage<?> message : buffer) {
+            String subscription = sequencedSubscription(message);
+            if (subscription != null && buffer.removeFirstOccurrence(message)) {
+                bufferSize.addAndGet(-message.getPayloadLength());
+                bufferCount.decrementAndGet();
+                TextMessage frame = (TextMessage) message;
+                if (!frame.getPayload().startsWith(STOMP_MESSAGE + RESYNC_HEADER)) {
+                    dropped.increment(); // A marker was counted when its event was first dropped.
+                }
+                newestBySubscription.put(subscription, frame);
+            }
+        }
+        for (TextMessage newest : newestBySubscription.values()) {
+            // The newest frame, with a header asking the client to replay everything it missed
+            String frame = newest.getPayload();
+            TextMessage marker = frame.startsWith(STOMP_MESSAGE + RESYNC_HEADER) ? newest
+                    : new TextMessage(STOMP_MESSAGE + RESYNC_HEADER + frame.substring(STOMP_MESSAGE.length()));
+            buffer.add(marker);
+            bufferSize.addAndGet(marker.getPayloadLength());
+            bufferCount.incrementAndGet();
+        }
+        if (bufferSize.get() > bufferSizeLimit) {
+            limitExceeded("Buffer size " + bufferSize.get() + " bytes for session '"
+                    + getId() + "' exceeds the allowed limit " + bufferSizeLimit + " after coalescing");
+        }
+    }
+
+    // The subscription of a MESSAGE frame the client can replay, i.e. one with a sequence number; otherwise null.
+    private static String sequencedSubscription(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text) || !text.getPayload().startsWith(STOMP_MESSAGE)) {
+            return null;
+        }
+        String payload = text.getPayload();
+        int headersEnd = payload.indexOf("\n\n");
+        if (headersEnd < STOMP_MESSAGE.length()) {
+            return null;
+        }
+        boolean sequenced = false;
+        String subscription = null;
+        for (String header : payload.substring(STOMP_MESSAGE.length(), headersEnd).split("\n")) {
+            if (header.startsWith(SEQ_HEADER_PREFIX)) {
+                sequenced = true;
+            } else if (header.startsWith(SUBSCRIPTION_HEADER_PREFIX)) {
+                subscription = header.substring(SUBSCRIPTION_HEADER_PREFIX.length());
+            }
+        }
+        return sequenced ? subscription : null;
+    }
+
+    private void limitExceeded(String reason) {
+        limitExceeded = true;
+        throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closeLock.lock();
+        try {
+            if (closeInProgress) {
+                return;
+            }
+            if (!CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+                try {
+                    checkLimits(); // A normal close can still turn out to be an unreliable session.
+                } catch (SessionLimitExceededException ex) {
+                    // Ignore
+                }
+                if (limitExceeded) {
+                    status = CloseStatus.SESSION_NOT_RELIABLE;
+                }
+            }
+            closeInProgress = true;
+            super.close(status);
+        } finally {
+            closeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of messages waiting to be sent.
+     *
+     * @return the queue depth in messages
+     */
+    public int getQueueDepth() {
+        return bufferCount.get();
+    }
+
+    /**
+     * Gets the size of the messages waiting to be sent.
+     *
+     * @return the queue depth in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize.get();
+    }
+
+    /**
+     * Gets how long the current send has been blocked.
+     *
+     * @return the time in milliseconds, or 0 if no send is in progress
+     */
+    public long getTimeSinceSendStarted() {
+        long start = sendStartTime;
+        return start > 0 ? System.currentTimeMillis() - start : 0;
+    }
+
+    /**
+     * Gets the number of messages sent to the client.
+     *
+     * @return the sent message count
+     */
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /**
+     * Gets the number of messages dropped because the client fell behind; the client
+     * receives them again in a replay.
+     *
+     * @return the dropped message count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the slow-consumer policy of this session.
+     *
+     * @return the policy
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+}
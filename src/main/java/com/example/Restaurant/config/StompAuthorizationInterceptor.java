@@ -0,0 +1,69 @@
+package com.example.Restaurant.config;
+
+import com.example.Restaurant.model.Role;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * The StompAuthorizationInterceptor class checks every client SUBSCRIBE and SEND against
+ * the roles in StompDestinations.
+ *
+ * Main Responsibilities:
+ * - Reject subscriptions to destinations of another station or role.
+ * - Reject frames to unknown destinations, including SENDs straight to the broker.
+ *
+ * Component Relationships:
+ * - WebSocketConfig: Registers this interceptor on the client inbound channel.
+ * - StompDestinations: Defines which roles may use which destination.
+ *
+ * Dependencies:
+ * - The user of a session is the Spring Security authentication of the HTTP session that
+ *   opened the WebSocket, so staff must be signed in before the page connects.
+ *
+ * Security Considerations:
+ * - A rejected frame ends with a STOMP ERROR frame and the client is disconnected.
+ */
+public class StompAuthorizationInterceptor implements ChannelInterceptor {
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command != StompCommand.SUBSCRIBE && command != StompCommand.SEND) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        Set<Role> allowed = StompDestinations.allowedRoles(destination);
+        if (!hasAnyRole(accessor.getUser(), allowed)) {
+            throw new AccessDeniedException(command + " to " + destination + " is not allowed");
+        }
+        return message;
+    }
+
+    private static boolean hasAnyRole(Principal user, Set<Role> allowed) {
+        if (!(user instanceof Authentication authentication) || !authentication.isAuthenticated()) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            for (Role role : allowed) {
+                if (("ROLE_" + role.name()).equals(authority.getAuthority())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
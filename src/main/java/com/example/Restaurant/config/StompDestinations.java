@@ -0,0 +1,71 @@
+package com.example.Restaurant.config;
+
+import com.example.Restaurant.model.Role;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The STOMP destinations of the application and the roles allowed to use them.
+ *
+ * Each screen subscribes only to the destinations of its station, so waiters never receive
+ * kitchen stock traffic and pages opened by customers cannot subscribe to staff events:
+ * - Kitchen (CHEF, SOUS_CHEF, ADMIN): all order events, stock batches and low-stock alerts.
+ * - Waiter (WAITER, ADMIN): only the order events the pickup screen renders (ready, delivered).
+ * - Admin (ADMIN): alerts that need a manager, such as orders blocked by missing stock.
+ * - User ("/user/queue/..."): messages for one authenticated user, e.g. the chef whose
+ *   status change failed.
+ *
+ * StompAuthorizationInterceptor enforces the roles on every SUBSCRIBE and SEND.
+ */
+public final class StompDestinations {
+
+    public static final String KITCHEN_ORDERS = "/topic/kitchen/orders";
+    public static final String KITCHEN_STOCK = "/topic/kitchen/stock";
+    public static final String KITCHEN_ALERTS = "/topic/kitchen/alerts";
+    public static final String WAITER_ORDERS = "/topic/waiter/orders";
+    public static final String ADMIN_ALERTS = "/topic/admin/alerts";
+
+    /**
+     * The per-user alert queue, passed to convertAndSendToUser; clients subscribe to "/user/queue/alerts".
+     */
+    public static final String USER_ALERTS = "/queue/alerts";
+
+    private static final Set<Role> KITCHEN_ROLES = EnumSet.of(Role.CHEF, Role.SOUS_CHEF, Role.ADMIN);
+    private static final Set<Role> WAITER_ROLES = EnumSet.of(Role.WAITER, Role.ADMIN);
+    private static final Set<Role> ADMIN_ROLES = EnumSet.of(Role.ADMIN);
+
+    private static final Map<String, Set<Role>> ROLES_BY_PREFIX = new LinkedHashMap<>();
+
+    static {
+        ROLES_BY_PREFIX.put("/topic/kitchen/", KITCHEN_ROLES);
+        ROLES_BY_PREFIX.put("/app/kitchen/", KITCHEN_ROLES);
+        ROLES_BY_PREFIX.put("/topic/waiter/", WAITER_ROLES);
+        ROLES_BY_PREFIX.put("/app/waiter/", WAITER_ROLES);
+        ROLES_BY_PREFIX.put("/topic/admin/", ADMIN_ROLES);
+        ROLES_BY_PREFIX.put("/user/queue/", EnumSet.allOf(Role.class)); // Any signed-in user, for their own queue.
+    }
+
+    private StompDestinations() {
+    }
+
+    /**
+     * Gets the roles allowed to subscribe or send to a destination.
+     *
+     * @param destination the destination of a client frame
+     * @return the allowed roles, or an empty set if clients may not use the destination at all
+     */
+    public static Set<Role> allowedRoles(String destination) {
+        if (destination == null) {
+            return Set.of();
+        }
+        for (Map.Entry<String, Set<Role>> entry : ROLES_BY_PREFIX.entrySet()) {
+            if (destination.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return Set.of();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.Restaurant.config;
+
+import com.example.Restaurant.services.WebSocketMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * The WebSocketBrokerConfig class sets up the STOMP message broker infrastructure.
+ * It takes the place of @EnableWebSocketMessageBroker, which imports the same configuration
+ * but offers no way to choose how client sessions are wrapped.
+ *
+ * Main Responsibilities:
+ * - Apply the callbacks of every WebSocketMessageBrokerConfigurer bean (see WebSocketConfig).
+ * - Wrap each client session in a SlowConsumerSessionDecorator using the configured
+ *   slow-consumer policy, and register it with WebSocketMetricsService.
+ *
+ * Component Relationships:
+ * - WebSocketConfig: Provides the broker, endpoint, channel and transport settings.
+ * - WebSocketMetricsService: Tracks the decorated sessions.
+ *
+ * Required Dependencies:
+ * - Spring WebSocket
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Autowired
+    private WebSocketMetricsService webSocketMetricsService;
+
+    @Value("${restaurant.websocket.slow-consumer-policy:coalesce}")
+    private String slowConsumerPolicy;
+
+    /**
+     * Creates the handler of "/ws-orders" sessions with the slow-consumer aware session wrapper.
+     *
+     * @param clientInboundChannel the channel for messages from clients
+     * @param clientOutboundChannel the channel for messages to clients
+     * @return the WebSocket handler
+     */
+    @Override
+    @Bean
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        SlowConsumerSessionDecorator.Policy policy = SlowConsumerSessionDecorator.Policy.valueOf(slowConsumerPolicy.toUpperCase());
+        return new SubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel) {
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                SlowConsumerSessionDecorator decorated =
+                        new SlowConsumerSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(), policy);
+                webSocketMetricsService.register(decorated);
+                return decorated;
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, closeStatus);
+                } finally {
+                    webSocketMetricsService.unregister(session.getId());
+                }
+            }
+        };
+    }
+}
@@ -1,45 +1,103 @@
 package com.example.Restaurant.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * The WebSocketConfig class is responsible for configuring WebSocket messaging for the application.
  * It implements the WebSocketMessageBrokerConfigurer interface to customize the WebSocket message broker configuration.
  *
  * Main Responsibilities:
- * - Configure the message broker for handling WebSocket messages.
+ * - Configure the message broker for handling WebSocket messages, including heartbeats.
  * - Register STOMP endpoints for WebSocket connections.
+ * - Size the thread pools of the inbound and outbound client channels.
+ * - Limit the message size, send buffer and send time of each session.
+ * - Restrict subscriptions to the destinations of the user's role (see StompDestinations).
  *
  * Component Relationships:
  * - WebSocketMessageBrokerConfigurer: Interface that provides callback methods to configure the WebSocket message broker.
+ * - WebSocketBrokerConfig: Applies these callbacks and decides what happens to slow consumers.
  *
  * Required Dependencies:
  * - Spring WebSocket
  *
  * Security Notes:
- * - Ensure that the WebSocket endpoints are secured appropriately to prevent unauthorized access.
+ * - Station topics and snapshots are only available to signed-in staff of the matching role.
+ * - The message size limit keeps a single client from tying up memory with huge frames.
  */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${restaurant.websocket.inbound.core-pool-size:2}")
+    private int inboundCorePoolSize;
+
+    @Value("${restaurant.websocket.inbound.max-pool-size:4}")
+    private int inboundMaxPoolSize;
+
+    @Value("${restaurant.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${restaurant.websocket.outbound.core-pool-size:4}")
+    private int outboundCorePoolSize;
+
+    @Value("${restaurant.websocket.outbound.max-pool-size:8}")
+    private int outboundMaxPoolSize;
+
+    @Value("${restaurant.websocket.outbound.queue-capacity:5000}")
+    private int outboundQueueCapacity;
+
+    @Value("${restaurant.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${restaurant.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${restaurant.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${restaurant.websocket.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    /**
+     * Sets the scheduler that sends the broker heartbeats.
+     * Lazy because the scheduler is created by the broker configuration this class contributes to.
+     *
+     * @param messageBrokerTaskScheduler the broker task scheduler
+     */
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
     /**
      * Configures the message broker for handling WebSocket messages.
-     * Enables a simple in-memory message broker with the "/topic" destination prefix.
-     * Sets the application destination prefix to "/app".
+     * Enables a simple in-memory message broker with the "/topic" and "/queue" destination prefixes.
+     * Sets the application destination prefix to "/app" and the user destination prefix to "/user".
      *
      * @param registry the MessageBrokerRegistry used to configure the message broker
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // Enable a simple in-memory message broker with the "/topic" destination prefix
-        registry.enableSimpleBroker("/topic");
+        // Enable a simple in-memory message broker for the station topics and the per-user queues
+        registry.enableSimpleBroker("/topic", "/queue")
+                // Exchange heartbeats so dead tablets are detected and proxies keep the connection open
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         // Set the application destination prefix to "/app"
         registry.setApplicationDestinationPrefixes("/app");
+        // "/user/queue/..." resolves to the queue of the session's authenticated user
+        registry.setUserDestinationPrefix("/user");
     }
 
     /**
@@ -53,4 +111,44 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Add an endpoint at "/ws-orders" with SockJS fallback options
         registry.addEndpoint("/ws-orders").withSockJS();
     }
-}
\ No newline at end of file
+
+    /**
+     * Sizes the thread pool that processes messages from clients and checks that each
+     * client only subscribes to the destinations of its role.
+     *
+     * @param registration the ChannelRegistration of the inbound channel
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthorizationInterceptor());
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    /**
+     * Sizes the thread pool that writes messages to clients.
+     *
+     * @param registration the ChannelRegistration of the outbound channel
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    /**
+     * Limits the size of incoming messages and how far each session may fall behind.
+     *
+     * @param registration the WebSocketTransportRegistration used to configure the transport
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.Restaurant.controller;
 
+import com.example.Restaurant.model.Cart;
 import com.example.Restaurant.model.CartItem;
 import com.example.Restaurant.model.Food;
-import com.example.Restaurant.repository.CartItemRepository;
-import com.example.Restaurant.repository.FoodRepository;
-import jakarta.servlet.http.HttpServletRequest;
+import com.example.Restaurant.services.CartService;
+import com.example.Restaurant.services.MenuCacheService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -16,67 +16,56 @@ import java.util.List;
 /**
  * The CartController class handles operations related to the shopping cart.
  * Main features include adding items to the cart, viewing the cart, updating item quantities, and checking out.
+ * Every HTTP session has its own in-memory cart, so concurrent tables never share cart items.
  *
  * Dependencies:
- * - CartItemRepository: Repository for cart item operations.
- * - FoodRepository: Repository for food item operations.
+ * - CartService: In-memory store of the per-session carts.
+ * - MenuCacheService: Cached food lookups, so adding to the cart does not query the database.
  */
 @Controller // Marks this class as a Spring MVC controller
 @RequestMapping("/cart") // Maps requests starting with /cart to this controller
 public class CartController {
 
-    @Autowired // Injects the CartItemRepository bean
-    private CartItemRepository cartItemRepository; // Repository for cart item operations
+    @Autowired // Injects the CartService bean
+    private CartService cartService; // In-memory store of the per-session carts
 
-    @Autowired // Injects the FoodRepository bean
-    private FoodRepository foodRepository; // Repository for food item operations
+    @Autowired // Injects the MenuCacheService bean
+    private MenuCacheService menuCacheService; // Cached food lookups
 
     /**
      * Adds a food item to the cart.
      *
      * @param foodId the ID of the food item to add
      * @param quantity the quantity of the food item to add
-     * @return a success message
+     * @param session the HttpSession whose cart the item is added to
+     * @return the updated cart item count, so the menu can update its badge without another request
      */
     @PostMapping("/add") // Maps POST requests to /cart/add to this method
     @ResponseBody // Indicates that the return value should be used as the response body
-    public String addToCart(@RequestParam Long foodId, @RequestParam Integer quantity) {
+    public String addToCart(@RequestParam Long foodId, @RequestParam Integer quantity, HttpSession session) {
         // Find the food item by ID or throw an exception if not found
-        Food food = foodRepository.findById(foodId)
+        Food food = menuCacheService.getFood(foodId)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid food Id:" + foodId));
 
-        // Create a new CartItem object
-        CartItem cartItem = new CartItem();
-        // Set the food item
-        cartItem.setFood(food);
-        // Set the quantity
-        cartItem.setQuantity(quantity);
-        // Save the cart item to the repository
-        cartItemRepository.save(cartItem);
+        // Add the food item to this session's cart
+        Cart cart = cartService.getCart(session);
+        cart.add(food, quantity);
 
-        // Return a success message
-        return "Added to cart successfully";
+        // Return the updated cart item count
+        return String.valueOf(cart.getItemCount());
     }
 
     /**
      * Displays the cart.
      *
      * @param model the Model object used to pass data to the view
-     * @param session the HttpSession object used to manage session attributes
+     * @param session the HttpSession whose cart is displayed
      * @return the name of the view to render
      */
     @GetMapping // Maps GET requests to /cart to this method
     public String viewCart(Model model, HttpSession session) {
-        // Get all cart items from the repository
-        List<CartItem> cartItems = cartItemRepository.findAll();
-
-        // If the cart is empty, remove the cartItems attribute from the session
-        if (cartItems.isEmpty()) {
-            session.removeAttribute("cartItems");
-        }
-
-        // Add the cart items to the model
-        model.addAttribute("cartItems", cartItems);
+        // Add this session's cart items to the model
+        model.addAttribute("cartItems", getCartItems(session));
         // Return the view name for the cart
         return "cart";
     }
@@ -86,38 +75,31 @@ public class CartController {
      *
      * @param itemId the ID of the cart item to update
      * @param quantity the new quantity of the cart item
+     * @param session the HttpSession whose cart is updated
      * @return the updated cart item count
      */
     @PostMapping("/update") // Maps POST requests to /cart/update to this method
     @ResponseBody // Indicates that the return value should be used as the response body
-    public String updateCart(@RequestParam Long itemId, @RequestParam Integer quantity) {
-        // Find the cart item by ID or throw an exception if not found
-        CartItem cartItem = cartItemRepository.findById(itemId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid item Id:" + itemId));
-
-        // If the quantity is less than or equal to 0, delete the cart item
-        if (quantity <= 0) {
-            cartItemRepository.delete(cartItem);
-        } else {
-            // Otherwise, update the quantity and save the cart item
-            cartItem.setQuantity(quantity);
-            cartItemRepository.save(cartItem);
-        }
+    public String updateCart(@RequestParam Long itemId, @RequestParam Integer quantity, HttpSession session) {
+        // Update the item in this session's cart (a quantity of 0 or less removes it)
+        Cart cart = cartService.getCart(session);
+        cart.update(itemId, quantity);
 
         // Return the updated cart item count
-        return String.valueOf(getCartItemCount());
+        return String.valueOf(cart.getItemCount());
     }
 
     /**
      * Displays the checkout page.
      *
      * @param model the Model object used to pass data to the view
+     * @param session the HttpSession whose cart is checked out
      * @return the name of the view to render
      */
     @GetMapping("/checkout") // Maps GET requests to /cart/checkout to this method
-    public String checkout(Model model) {
-        // Add all cart items to the model
-        model.addAttribute("cartItems", cartItemRepository.findAll());
+    public String checkout(Model model, HttpSession session) {
+        // Add this session's cart items to the model
+        model.addAttribute("cartItems", getCartItems(session));
         // Return the view name for the checkout page
         return "checkout";
     }
@@ -125,16 +107,16 @@ public class CartController {
     /**
      * Gets the total count of items in the cart.
      *
+     * @param session the HttpSession whose cart is counted
      * @return the total count of items in the cart
      */
     @GetMapping("/count") // Maps GET requests to /cart/count to this method
     @ResponseBody // Indicates that the return value should be used as the response body
-    public int getCartItemCount() {
-        // Get all cart items from the repository, map their quantities to an int stream, and sum the quantities
-        return ((List<CartItem>) cartItemRepository.findAll())
-                .stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+    public int getCartItemCount(HttpSession session) {
+        // Sum the quantities in this session's cart, without creating a cart for new visitors
+        return cartService.findCart(session)
+                .map(Cart::getItemCount)
+                .orElse(0);
     }
 
     /**
@@ -148,4 +130,16 @@ public class CartController {
         // Return the view name for the home page
         return "home";
     }
+
+    /**
+     * Gets the items of the session's cart, or an empty list if it has no cart.
+     *
+     * @param session the HttpSession whose cart items are returned
+     * @return the cart items
+     */
+    private List<CartItem> getCartItems(HttpSession session) {
+        return cartService.findCart(session)
+                .map(Cart::getItems)
+                .orElse(List.of());
+    }
 }
\ No newline at end of file
@@ -2,17 +2,23 @@ package com.example.Restaurant.controller;
 
     import com.example.Restaurant.model.Food;
     import com.example.Restaurant.repository.FoodRepository;
+    import com.example.Restaurant.services.ImageService;
+    import com.example.Restaurant.services.MenuCacheService;
+    import jakarta.servlet.http.HttpServletRequest;
+    import jakarta.servlet.http.HttpServletResponse;
     import org.springframework.beans.factory.annotation.Autowired;
+    import org.springframework.http.CacheControl;
+    import org.springframework.http.HttpHeaders;
+    import org.springframework.http.HttpStatus;
+    import org.springframework.http.ResponseEntity;
     import org.springframework.stereotype.Controller;
     import org.springframework.ui.Model;
-    import org.springframework.util.StringUtils;
     import org.springframework.web.bind.annotation.*;
+    import org.springframework.web.context.request.WebRequest;
     import org.springframework.web.multipart.MultipartFile;
 
     import java.io.IOException;
-    import java.nio.file.Files;
-    import java.nio.file.Paths;
-    import java.nio.file.StandardCopyOption;
+    import java.util.Map;
 
     /**
      * The FoodController class handles operations related to food items in the restaurant application.
@@ -21,13 +27,16 @@ package com.example.Restaurant.controller;
      * - Display the home page.
      * - Display the menu based on category.
      * - Manage food items (add, edit, delete).
-     * - Handle file uploads for food images.
+     * - Handle file uploads for food images, from the form or streamed as a raw image body.
      *
      * Component Relationships:
      * - Interacts with the FoodRepository to perform CRUD operations on food items.
+     * - Serves customer menu reads from MenuCacheService and invalidates it on every change.
      *
      * Dependencies:
      * - FoodRepository: Repository for food item operations.
+     * - MenuCacheService: In-memory cache of the menu.
+     * - ImageService: Stores uploaded images under content-hashed names and resizes them in the background.
      *
      * Security Considerations:
      * - Ensure proper validation of food item data.
@@ -39,6 +48,12 @@ package com.example.Restaurant.controller;
         @Autowired // Injects the FoodRepository bean
         private FoodRepository foodRepository; // Repository for food item operations
 
+        @Autowired // Injects the MenuCacheService bean
+        private MenuCacheService menuCacheService; // In-memory cache of the menu
+
+        @Autowired // Injects the ImageService bean
+        private ImageService imageService; // Storage and resizing of food images
+
         /**
          * Displays the home page.
          *
@@ -51,15 +66,24 @@ package com.example.Restaurant.controller;
 
         /**
          * Displays the menu based on the specified category.
+         * Answers 304 Not Modified, without rendering the page, when the client already
+         * holds the current menu version (If-None-Match / If-Modified-Since).
          *
          * @param category the category of food items to display
          * @param model the Model object used to pass data to the view
-         * @return the name of the view to render
+         * @param request the WebRequest used to evaluate the conditional headers
+         * @param response the HttpServletResponse the cache headers are added to
+         * @return the name of the view to render, or null if the client's copy is current
          */
         @GetMapping("/menu/{category}") // Maps GET requests to /menu/{category} to this method
-        public String menu(@PathVariable String category, Model model) {
-            // Add the list of food items in the specified category to the model
-            model.addAttribute("foods", foodRepository.findByCategory(category));
+        public String menu(@PathVariable String category, Model model, WebRequest request, HttpServletResponse response) {
+            // Let the browser keep the page but revalidate it on every visit
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            if (request.checkNotModified(menuCacheService.getETag(), menuCacheService.getLastModified())) {
+                return null; // 304 Not Modified, nothing is rendered
+            }
+            // Add the list of food items in the specified category to the model (served from the menu cache)
+            model.addAttribute("foods", menuCacheService.getFoodsByCategory(category));
             return "menu"; // Return the view name for the menu page
         }
 
@@ -105,6 +129,8 @@ package com.example.Restaurant.controller;
         public String deleteFood(@PathVariable Long id) {
             // Delete the food item by ID
             foodRepository.deleteById(id);
+            // Drop the deleted food from the menu cache
+            menuCacheService.invalidate(id);
             return "redirect:/form"; // Redirect to the form page
         }
 
@@ -113,46 +139,112 @@ package com.example.Restaurant.controller;
          *
          * @param food the Food object containing the food item details
          * @param file the MultipartFile object containing the uploaded image file
-         * @return the redirect URL
+         * @param model the Model object used to pass data to the view when the image is rejected
+         * @return the redirect URL, or the form view with an error if the image is rejected
          */
         @PostMapping("/save") // Maps POST requests to /save to this method
-        public String saveFood(@ModelAttribute Food food, @RequestParam(value = "file", required = false) MultipartFile file) {
+        public String saveFood(@ModelAttribute Food food, @RequestParam(value = "file", required = false) MultipartFile file, Model model) {
+            // The form does not post the current image, so keep it unless a new one is uploaded
+            String previousImage = food.getId() == null ? null
+                    : foodRepository.findById(food.getId()).map(Food::getImage).orElse(null);
+            food.setImage(previousImage);
             // Check if a file is uploaded
             if (file != null && !file.isEmpty()) {
-                // Clean the file name to prevent file injection attacks
-                String fileName = StringUtils.cleanPath(file.getOriginalFilename());
                 try {
-                    // Define the upload directory
-                    String uploadDir = "src/main/resources/static/uploads/";
-                    // Create the upload directory if it does not exist
-                    Files.createDirectories(Paths.get(uploadDir));
-                    // Copy the file to the upload directory
-                    Files.copy(file.getInputStream(),
-                            Paths.get(uploadDir + fileName),
-                            StandardCopyOption.REPLACE_EXISTING);
-                    // Set the image file name in the food object
-                    food.setImage(fileName);
-                } catch (IOException e) {
-                    e.printStackTrace(); // Print the stack trace for debugging
+                    // Store the file under its content hash; the name never comes from the client
+                    food.setImage(imageService.store(file));
+                } catch (IOException | IllegalArgumentException e) {
+                    // Nothing is saved; show the form again with the reason the image was rejected
+                    model.addAttribute("foods", foodRepository.findAll());
+                    model.addAttribute("error", "The image was not saved: " + e.getMessage());
+                    return "form";
                 }
             }
             // Save the food item to the repository
-            foodRepository.save(food);
+            Food savedFood = foodRepository.save(food);
+            // Drop the stale entries from the menu cache
+            menuCacheService.invalidate(savedFood.getId());
+            if (previousImage != null && !previousImage.equals(savedFood.getImage())) {
+                imageService.deleteIfUnused(previousImage); // Other dishes may share the old picture
+            }
             return "redirect:/form"; // Redirect to the form page
         }
 
+        /**
+         * Replaces the image of a food item with the raw request body.
+         * Unlike the form upload, the body is not parsed as multipart; it is streamed straight
+         * into the upload store, validated and hashed on the way.
+         *
+         * @param id the ID of the food item
+         * @param request the servlet request whose body is the image
+         * @return the stored image name, 413 if the declared length is too large, or 400 if the
+         *         body is not a supported image or turns out too large while streaming
+         * @throws IOException if the body cannot be read or stored
+         * @throws IllegalArgumentException if the food item ID is invalid
+         */
+        @PostMapping(value = "/api/foods/{id}/image", consumes = "image/*") // Maps POST requests with an image body to this method
+        @ResponseBody // Indicates that the return value should be used as the response body
+        public ResponseEntity<Map<String, String>> uploadImage(@PathVariable Long id, HttpServletRequest request) throws IOException {
+            Food food = foodRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid food Id:" + id));
+            if (request.getContentLengthLong() > imageService.getMaxUploadBytes()) {
+                // Reject before reading anything
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(Map.of("error", "Image is larger than " + imageService.getMaxUploadBytes() + " bytes"));
+            }
+            String image;
+            try {
+                image = imageService.store(request.getInputStream());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+            String previousImage = food.getImage();
+            food.setImage(image);
+            foodRepository.save(food);
+            // Drop the stale entries from the menu cache
+            menuCacheService.invalidate(id);
+            if (previousImage != null && !previousImage.equals(image)) {
+                imageService.deleteIfUnused(previousImage); // Other dishes may share the old picture
+            }
+            return ResponseEntity.ok(Map.of("image", image));
+        }
+
         /**
          * Retrieves a food item by its ID.
+         * Answers 304 Not Modified when the client already holds the current menu version.
          *
          * @param id the ID of the food item to retrieve
-         * @return the Food object
+         * @param request the WebRequest used to evaluate the conditional headers
+         * @return the Food object, or 304 Not Modified if the client's copy is current
          * @throws IllegalArgumentException if the food item ID is invalid
          */
         @GetMapping("/api/foods/{id}") // Maps GET requests to /api/foods/{id} to this method
         @ResponseBody // Indicates that the return value should be used as the response body
-        public Food getFoodById(@PathVariable Long id) {
-            // Find the food item by ID or throw an exception if not found
-            return foodRepository.findById(id)
+        public ResponseEntity<Food> getFoodById(@PathVariable Long id, WebRequest request) {
+            String eTag = menuCacheService.getETag();
+            long lastModified = menuCacheService.getLastModified();
+            if (request.checkNotModified(eTag, lastModified)) {
+                return ResponseEntity.status(304).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+            }
+            // Find the food item by ID (served from the menu cache) or throw an exception if not found
+            Food food = menuCacheService.getFood(id)
                     .orElseThrow(() -> new IllegalArgumentException("Invalid food Id:" + id));
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(CacheControl.noCache())
+                    .body(food);
+        }
+
+        /**
+         * Retrieves the hit and miss statistics of the menu cache.
+         * Only administrators may read them (see SecurityConfig).
+         *
+         * @return the cache statistics
+         */
+        @GetMapping("/api/menu/cache-stats") // Maps GET requests to /api/menu/cache-stats to this method
+        @ResponseBody // Indicates that the return value should be used as the response body
+        public Map<String, Object> getMenuCacheStats() {
+            return menuCacheService.getStats();
         }
     }
\ No newline at end of file
@@ -1,18 +1,26 @@
 package com.example.Restaurant.controller;
 
+import com.example.Restaurant.config.StompDestinations;
+import com.example.Restaurant.model.EventReplay;
+import com.example.Restaurant.model.Food;
 import com.example.Restaurant.model.Ingredient;
+import com.example.Restaurant.model.StockSummary;
+import com.example.Restaurant.services.EventStreamService;
 import com.example.Restaurant.services.IngredientService;
 import com.example.Restaurant.services.RecipeService;
+import com.example.Restaurant.services.StockBroadcastService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * The IngredientController class handles operations related to ingredients in the restaurant application.
@@ -25,12 +33,14 @@ import java.util.Map;
  * Component Relationships:
  * - Interacts with IngredientService for ingredient operations.
  * - Interacts with RecipeService to check ingredient usage in recipes.
- * - Uses SimpMessagingTemplate for real-time notifications.
+ * - Uses StockBroadcastService for batched real-time stock notifications.
+ * - Uses EventStreamService to let reconnecting stock screens catch up.
  *
  * Dependencies:
  * - IngredientService: Service for ingredient-related operations.
  * - RecipeService: Service for recipe-related operations.
- * - SimpMessagingTemplate: For sending real-time notifications.
+ * - StockBroadcastService: For sending real-time stock updates and low stock alerts.
+ * - EventStreamService: For replaying missed stock updates.
  *
  * Security Considerations:
  * - Ensure proper validation of ingredient data.
@@ -43,12 +53,15 @@ public class IngredientController {
     @Autowired // Injects the IngredientService bean
     private IngredientService ingredientService; // Service for ingredient-related operations
 
-    @Autowired // Injects the SimpMessagingTemplate bean
-    private SimpMessagingTemplate messagingTemplate; // For sending real-time notifications
+    @Autowired // Injects the StockBroadcastService bean
+    private StockBroadcastService stockBroadcastService; // For batched real-time stock notifications
 
     @Autowired // Injects the RecipeService bean
     private RecipeService recipeService; // Service for recipe-related operations
 
+    @Autowired // Injects the EventStreamService bean
+    private EventStreamService eventStreamService; // Replay buffer of the stock batches
+
     /**
      * Displays the ingredients page.
      *
@@ -57,17 +70,19 @@ public class IngredientController {
      */
     @GetMapping // Maps GET requests to /ingredients to this method
     public String viewIngredients(Model model) {
-        // Retrieve all ingredients and low stock ingredients
+        // Retrieve all ingredients once and take the counters from the in-memory stock summary
         List<Ingredient> allIngredients = ingredientService.getAllIngredients();
-        List<Ingredient> lowStockIngredients = ingredientService.getLowStockIngredients();
+        StockSummary summary = ingredientService.getStockSummary();
 
         // Add attributes to the model for the view
         model.addAttribute("ingredients", allIngredients);
-        model.addAttribute("lowStockIngredients", lowStockIngredients);
-        model.addAttribute("totalCount", allIngredients.size());
-        model.addAttribute("outOfStockCount", ingredientService.getOutOfStockCount());
-        model.addAttribute("lowStockCount", lowStockIngredients.size());
-        model.addAttribute("wellStockedCount", ingredientService.getWellStockedCount());
+        model.addAttribute("lowStockIngredients", allIngredients.stream()
+                .filter(ingredient -> summary.getLowStockIds().contains(ingredient.getId()))
+                .collect(Collectors.toList()));
+        model.addAttribute("totalCount", summary.getTotalCount());
+        model.addAttribute("outOfStockCount", summary.getOutOfStockCount());
+        model.addAttribute("lowStockCount", summary.getLowStockCount());
+        model.addAttribute("wellStockedCount", summary.getWellStockedCount());
 
         return "ingredients"; // Return the view name for the ingredients page
     }
@@ -98,8 +113,8 @@ public class IngredientController {
     public ResponseEntity<Ingredient> addIngredient(@RequestBody Ingredient ingredient) {
         // Save the new ingredient
         Ingredient savedIngredient = ingredientService.saveIngredient(ingredient);
-        // Check and notify stock level
-        checkAndNotifyStockLevel(savedIngredient);
+        // Broadcast the stock level
+        stockBroadcastService.stockChanged(savedIngredient.getId());
         return ResponseEntity.ok(savedIngredient); // Return the saved ingredient
     }
 
@@ -119,8 +134,8 @@ public class IngredientController {
                     // Set the ID and save the updated ingredient
                     ingredient.setId(id);
                     Ingredient updated = ingredientService.saveIngredient(ingredient);
-                    // Check and notify stock level
-                    checkAndNotifyStockLevel(updated);
+                    // Broadcast the stock level
+                    stockBroadcastService.stockChanged(updated.getId());
                     return ResponseEntity.ok(updated); // Return the updated ingredient
                 })
                 .orElse(ResponseEntity.notFound().build()); // Return not found status if ingredient does not exist
@@ -142,16 +157,8 @@ public class IngredientController {
                     // Update the current stock level
                     ingredient.setCurrentStock(request.get("currentStock"));
                     Ingredient updated = ingredientService.saveIngredient(ingredient);
-                    // Check and notify stock level
-                    checkAndNotifyStockLevel(updated);
-
-                    // Send real-time stock update notification
-                    messagingTemplate.convertAndSend("/topic/stock-updates",
-                            Map.of(
-                                    "type", "STOCK_UPDATE",
-                                    "ingredientId", updated.getId(),
-                                    "newStock", updated.getCurrentStock()
-                            ));
+                    // Broadcast the new stock level (and a low stock alert if it crossed the threshold)
+                    stockBroadcastService.stockChanged(updated.getId());
 
                     return ResponseEntity.ok(updated); // Return the updated ingredient
                 })
@@ -183,20 +190,29 @@ public class IngredientController {
     }
 
     /**
-     * Checks the stock level of an ingredient and sends a notification if the stock is low.
+     * Retrieves the foods whose recipe uses an ingredient.
+     * Used for impact analysis before changing or deleting an ingredient.
      *
-     * @param ingredient the Ingredient object to check
+     * @param id the ID of the ingredient
+     * @return the list of foods that use the ingredient
      */
-    private void checkAndNotifyStockLevel(Ingredient ingredient) {
-        // Check if the current stock is less than or equal to the threshold
-        if (ingredient.getCurrentStock() <= ingredient.getThreshold()) {
-            // Send a low stock alert notification
-            messagingTemplate.convertAndSend("/topic/alerts",
-                    Map.of(
-                            "type", "LOW_STOCK_ALERT",
-                            "ingredient", ingredient
-                    ));
-        }
+    @GetMapping("/used-in/{id}") // Maps GET requests to /ingredients/used-in/{id} to this method
+    @ResponseBody // Indicates that the return value should be used as the response body
+    public List<Food> getFoodsUsingIngredient(@PathVariable Long id) {
+        return recipeService.getFoodsUsingIngredient(id); // Return the foods served from the usage index
+    }
+
+    /**
+     * Brings a stock screen up to date when it subscribes to "/app/kitchen/stock/{epoch}/{since}",
+     * on first load and after every reconnect.
+     *
+     * @param epoch the epoch of the client's last stock batch, or "-" on first load
+     * @param since the sequence number of the client's last applied stock batch
+     * @return the missed stock batches, or one batch with the stock of every ingredient
+     */
+    @SubscribeMapping("/kitchen/stock/{epoch}/{since}")
+    public EventReplay resumeStock(@DestinationVariable String epoch, @DestinationVariable long since) {
+        return eventStreamService.replay(StompDestinations.KITCHEN_STOCK, epoch, since, stockBroadcastService::getStockSnapshot);
     }
 
     /**
@@ -207,6 +223,7 @@ public class IngredientController {
     @GetMapping("/low-stock") // Maps GET requests to /ingredients/low-stock to this method
     @ResponseBody // Indicates that the return value should be used as the response body
     public List<Ingredient> getLowStockIngredients() {
-        return ingredientService.getLowStockIngredients(); // Return the list of low stock ingredients
+        // Load only the ingredients the stock summary counts as low
+        return ingredientService.getIngredientsById(ingredientService.getStockSummary().getLowStockIds());
     }
 }
\ No newline at end of file
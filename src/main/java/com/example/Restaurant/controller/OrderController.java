@@ -1,15 +1,36 @@
 package com.example.Restaurant.controller;
 
+import com.example.Restaurant.config.StompDestinations;
+import com.example.Restaurant.model.Cart;
+import com.example.Restaurant.model.CartItem;
+import com.example.Restaurant.model.EventReplay;
 import com.example.Restaurant.model.Order;
+import com.example.Restaurant.model.OrderDetail;
+import com.example.Restaurant.model.OrderStatus;
+import com.example.Restaurant.model.OrderSummary;
+import com.example.Restaurant.services.CartService;
+import com.example.Restaurant.services.EventStreamService;
 import com.example.Restaurant.services.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The OrderController class handles operations related to customer orders in the restaurant application.
@@ -18,15 +39,19 @@ import java.util.List;
  * - View all orders.
  * - Process checkout and place new orders.
  * - Update order status.
- * - Provide API endpoints for order operations.
+ * - Provide API endpoints for order operations, including the cursor-paginated and
+ *   streaming (NDJSON) order history.
+ * - Bring reconnecting kitchen and waiter WebSocket clients up to date (missed events or a snapshot).
  *
  * Component Relationships:
  * - Interacts with OrderService for order-related operations.
- * - Uses SimpMessagingTemplate for real-time notifications.
+ * - Takes the checked-out items from the session's cart in CartService.
+ * - OrderService publishes per-order events to the kitchen and waiter topics after each change.
  *
  * Dependencies:
  * - OrderService: Service for order-related operations.
- * - SimpMessagingTemplate: For sending real-time notifications.
+ * - CartService: In-memory store of the per-session carts.
+ * - EventStreamService: Replay buffer of the sequenced order events.
  *
  * Security Considerations:
  * - Ensure proper validation of order data.
@@ -40,18 +65,29 @@ public class OrderController {
     private OrderService orderService;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private CartService cartService;
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Bounds used when the order history is requested without a time window.
+     */
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     /**
-     * View all orders.
+     * View the kitchen order board.
+     * The page is rendered without orders; the board loads them through the snapshot
+     * subscription, one queue page at a time.
      *
-     * @param model the Model object used to pass data to the view
      * @return the name of the view to render
      */
     @GetMapping
-    public String viewOrders(Model model) {
-        List<Order> orders = orderService.getAllOrders();
-        model.addAttribute("orders", orders);
+    public String viewOrders() {
         return "orders";
     }
 
@@ -60,11 +96,14 @@ public class OrderController {
      *
      * @param tableNumber the table number for the order
      * @param model the Model object used to pass data to the view
+     * @param session the HttpSession whose cart is checked out
      * @return the name of the view to render
      * @throws IllegalArgumentException if the table number is invalid
      */
     @PostMapping("/checkout")
-    public String checkout(@RequestParam String tableNumber, Model model) {
+    public String checkout(@RequestParam String tableNumber, Model model, HttpSession session) {
+        Cart cart = cartService.getCart(session);
+        List<CartItem> cartItems = cart.getItems();
         try {
             // Validate table number
             int tableNum = Integer.parseInt(tableNumber);
@@ -72,12 +111,11 @@ public class OrderController {
                 throw new IllegalArgumentException("Please select a table number between 1 and 25");
             }
 
-            // Place order
-            Order newOrder = orderService.placeOrder(tableNumber);
+            // Place order (publishes an ORDER_CREATED event)
+            Order newOrder = orderService.placeOrder(tableNumber, cartItems);
 
-            // Send update to WebSocket subscribers
-            List<Order> updatedOrders = orderService.getAllOrders();
-            messagingTemplate.convertAndSend("/topic/orders", updatedOrders);
+            // Only the checked-out quantities leave the cart; anything added meanwhile stays
+            cart.removeAll(cartItems);
 
             // Add order to model for confirmation page
             model.addAttribute("order", newOrder);
@@ -85,6 +123,7 @@ public class OrderController {
 
         } catch (Exception e) {
             model.addAttribute("error", e.getMessage());
+            model.addAttribute("cartItems", cartItems);
             return "cart";
         }
     }
@@ -94,20 +133,20 @@ public class OrderController {
      *
      * @param orderId the ID of the order to update
      * @param status the new status of the order
-     * @return a success message
+     * @return a success message, 409 Conflict if the transition is not allowed or the order was changed concurrently
      * @throws IllegalArgumentException if the order ID or status is invalid
      */
     @PostMapping("/update-status")
     public ResponseEntity<String> updateOrderStatus(@RequestParam Long orderId,
                                                     @RequestParam String status) {
         try {
-            orderService.updateOrderStatus(orderId, status);
-
-            // Send update to WebSocket subscribers
-            List<Order> updatedOrders = orderService.getAllOrders();
-            messagingTemplate.convertAndSend("/topic/orders", updatedOrders);
+            // Update status (publishes a STATUS_CHANGED or DELIVERED event)
+            orderService.updateOrderStatus(orderId, OrderStatus.fromLabel(status));
 
             return ResponseEntity.ok("Order status updated successfully");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error updating order status: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body("Error updating order status: " + e.getMessage());
@@ -115,26 +154,157 @@ public class OrderController {
     }
 
     /**
-     * Get all orders (API endpoint).
+     * Get one page of orders (API endpoint).
+     * Pages are addressed by a cursor: pass the X-Next-Cursor header of a response as
+     * the "after" parameter to get the next page. The header is absent on the last page.
      *
-     * @return the list of all orders
+     * @param after the cursor returned with the previous page, omitted for the first page
+     * @param status the statuses to include (labels such as "Ready", comma separated), all if omitted
+     * @param from the earliest order time to include (ISO date-time), unbounded if omitted
+     * @param to the order time to stop before (ISO date-time), unbounded if omitted
+     * @param limit the maximum number of orders to return (at most OrderService.HISTORY_MAX_PAGE_SIZE)
+     * @return the orders of the page in ascending ID order, or 400 Bad Request if a filter is invalid
      */
     @GetMapping("/all")
     @ResponseBody
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<List<OrderDetail>> getAllOrders(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) List<String> status,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        Set<OrderStatus> statuses;
+        try {
+            statuses = parseStatuses(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<OrderDetail> orders = orderService.getOrderHistory(after, statuses, fromOrMin(from), toOrMax(to), limit);
+
+        // A full page means there may be more: hand out the last ID as the next cursor
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!orders.isEmpty() && orders.size() == Math.min(Math.max(limit, 1), OrderService.HISTORY_MAX_PAGE_SIZE)) {
+            response.header("X-Next-Cursor", String.valueOf(orders.get(orders.size() - 1).id()));
+        }
+        return response.body(orders);
+    }
+
+    /**
+     * Stream all matching orders as newline-delimited JSON (API endpoint).
+     * Orders are written one per line as they are read, a page at a time, so the
+     * server's memory use does not grow with the size of the history.
+     *
+     * @param status the statuses to include (labels such as "Ready", comma separated), all if omitted
+     * @param from the earliest order time to include (ISO date-time), unbounded if omitted
+     * @param to the order time to stop before (ISO date-time), unbounded if omitted
+     * @return the streamed orders in ascending ID order, or 400 Bad Request if a filter is invalid
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOrders(@RequestParam(required = false) List<String> status,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        Set<OrderStatus> statuses;
+        try {
+            statuses = parseStatuses(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> orderService.streamOrderHistory(statuses, fromOrMin(from), toOrMax(to), order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Client went away; stop reading further pages
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Brings a kitchen client up to date when it subscribes to "/app/kitchen/orders/{epoch}/{since}",
+     * on first load and after every reconnect. Clients then keep it current by applying the
+     * events published on "/topic/kitchen/orders".
+     *
+     * @param epoch the epoch of the client's last event, or "-" on first load
+     * @param since the sequence number of the client's last applied event
+     * @return the missed events, or the tickets of all orders that have not been delivered
+     */
+    @SubscribeMapping("/kitchen/orders/{epoch}/{since}")
+    public EventReplay resumeKitchenOrders(@DestinationVariable String epoch, @DestinationVariable long since) {
+        return eventStreamService.replay(StompDestinations.KITCHEN_ORDERS, epoch, since, orderService::getActiveTickets);
+    }
+
+    /**
+     * Brings a waiter client up to date when it subscribes to "/app/waiter/orders/{epoch}/{since}",
+     * on first load and after every reconnect. Clients then keep it current by applying the
+     * events published on "/topic/waiter/orders".
+     *
+     * @param epoch the epoch of the client's last event, or "-" on first load
+     * @param since the sequence number of the client's last applied event
+     * @return the missed events, or the tickets of the orders waiting for pickup
+     */
+    @SubscribeMapping("/waiter/orders/{epoch}/{since}")
+    public EventReplay resumeWaiterOrders(@DestinationVariable String epoch, @DestinationVariable long since) {
+        return eventStreamService.replay(StompDestinations.WAITER_ORDERS, epoch, since,
+                () -> orderService.getQueueTickets(EnumSet.of(OrderStatus.READY)));
+    }
+
+    /**
+     * Get waiter summaries of the active orders (API endpoint).
+     *
+     * @param status the statuses to include (labels such as "Ready", comma separated), all active if omitted
+     * @param page the zero-based page of the kitchen queue
+     * @return one summary per order, oldest first, or 400 Bad Request if a status is invalid
+     */
+    @GetMapping("/summaries")
+    @ResponseBody
+    public ResponseEntity<List<OrderSummary>> getOrderSummaries(@RequestParam(required = false) List<String> status,
+                                                                @RequestParam(defaultValue = "0") int page) {
+        try {
+            Set<OrderStatus> statuses = status == null || status.isEmpty() ? OrderStatus.active() : parseStatuses(status);
+            return ResponseEntity.ok(orderService.getWaiterSummaries(statuses, page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Get specific order.
      *
      * @param id the ID of the order to retrieve
-     * @return the Order object
+     * @return the detail view of the order
      * @throws IllegalArgumentException if the order ID is invalid
      */
     @GetMapping("/{id}")
     @ResponseBody
-    public Order getOrder(@PathVariable Long id) {
-        return orderService.getOrderById(id);
+    public OrderDetail getOrder(@PathVariable Long id) {
+        return orderService.getOrderDetail(id);
+    }
+
+    /**
+     * Parse the status filter of the order history endpoints.
+     *
+     * @param labels the requested status labels, or null for all statuses
+     * @return the statuses to include
+     * @throws IllegalArgumentException if a label matches no status
+     */
+    private Set<OrderStatus> parseStatuses(List<String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return EnumSet.allOf(OrderStatus.class);
+        }
+        Set<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+        labels.forEach(label -> statuses.add(OrderStatus.fromLabel(label.trim())));
+        return statuses;
+    }
+
+    private LocalDateTime fromOrMin(LocalDateTime from) {
+        return from != null ? from : HISTORY_START;
+    }
+
+    private LocalDateTime toOrMax(LocalDateTime to) {
+        return to != null ? to : HISTORY_END;
     }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package com.example.Restaurant.controller;
 
 import com.example.Restaurant.model.*;
-import com.example.Restaurant.repository.OrderRepository;
 import com.example.Restaurant.services.OrderService;
-import com.example.Restaurant.services.RecipeService;
+import com.example.Restaurant.services.BillOfMaterialsService;
+import com.example.Restaurant.services.StockLedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -13,31 +13,36 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/seeOrders")
 public class SeeOrdersController {
 
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderService orderService;
 
     @Autowired
-    private OrderService orderService;
+    private BillOfMaterialsService billOfMaterialsService;
 
     @Autowired
-    private RecipeService recipeService;
+    private StockLedgerService stockLedgerService;
 
     @GetMapping
-    public String seeOrders(Model model) {
-        List<Order> orders = orderRepository.findByStatus("Pending");
+    public String seeOrders(@RequestParam(defaultValue = "0") int page, Model model) {
+        // Oldest pending orders first, one page of the indexed kitchen queue
+        List<Order> orders = orderService.getOrderQueue(Set.of(OrderStatus.NEW), page);
         model.addAttribute("Orders", orders);
+        // A full page means more orders may be waiting; the page links make them reachable
+        model.addAttribute("page", Math.max(page, 0));
+        model.addAttribute("hasNextPage", orders.size() >= orderService.getQueuePageSize());
         return "seeOrders";
     }
 
     @PostMapping("/deleteOrder/{id}")
     public String deleteOrder(@PathVariable Long id) {
         try {
-            orderService.updateOrderStatus(id, "Ready");
+            orderService.updateOrderStatus(id, OrderStatus.READY);
             return "redirect:/seeOrders";
         } catch (Exception e) {
             return "redirect:/error";
@@ -52,27 +57,22 @@ public class SeeOrdersController {
         try {
             Order order = orderService.getOrderById(id);
 
-            // check if order is null
+            // check if every food has a recipe (served from the bill-of-materials cache)
             for (OrderItem item : order.getOrderItems()) {
-                Optional<Recipe> recipe = recipeService.getRecipeByFoodId(item.getFood().getId());
-                if (recipe.isEmpty()) {
+                if (billOfMaterialsService.getBillOfMaterials(item.getFood().getId()).isEmpty()) {
                     response.put("canPrepare", false);
                     response.put("message", "Recipe not found for: " + item.getFood().getName());
                     return response;
                 }
+            }
 
-                // check if ingredients are available
-                Recipe foundRecipe = recipe.get();
-                for (RecipeIngredient recipeIngredient : foundRecipe.getIngredients()) {
-                    Ingredient ingredient = recipeIngredient.getIngredient();
-                    double requiredAmount = recipeIngredient.getAmount() * item.getQuantity();
-
-                    if (ingredient.getCurrentStock() < requiredAmount) {
-                        response.put("canPrepare", false);
-                        response.put("message", "Not enough " + ingredient.getName() + " in stock");
-                        return response;
-                    }
-                }
+            // check if ingredients are available, against the in-memory stock ledger
+            Map<Long, Double> requirements = orderService.calculateIngredientRequirements(order);
+            Optional<StockLedgerService.Shortfall> shortfall = stockLedgerService.check(requirements);
+            if (shortfall.isPresent()) {
+                response.put("canPrepare", false);
+                response.put("message", "Not enough " + stockLedgerService.getName(shortfall.get().getIngredientId()) + " in stock");
+                return response;
             }
 
             response.put("canPrepare", true);
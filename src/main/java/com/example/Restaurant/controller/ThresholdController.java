@@ -9,7 +9,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/threshold")
@@ -20,13 +19,9 @@ public class ThresholdController {
 
     @GetMapping
     public String getThresholdPage(Model model) {
-        // Retrieve all ingredients and filter only those below the threshold
-        List<Ingredient> lowStockIngredients = ingredientsService.getAllIngredients()
-                .stream()
-                .filter(ingredient -> ingredient.getCurrentStock() != null
-                        && ingredient.getThreshold() != null
-                        && ingredient.getCurrentStock() < ingredient.getThreshold())
-                .collect(Collectors.toList());
+        // Load only the ingredients the stock summary finds below their threshold
+        List<Ingredient> lowStockIngredients = ingredientsService.getIngredientsById(
+                ingredientsService.getStockSummary().getBelowThresholdIds());
 
         // Add the filtered ingredients to the model
         model.addAttribute("ingredients", lowStockIngredients);
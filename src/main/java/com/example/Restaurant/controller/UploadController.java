@@ -0,0 +1,127 @@
+package com.example.Restaurant.controller;
+
+import com.example.Restaurant.services.UploadStoreService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The UploadController class serves the uploaded food images from the upload store.
+ *
+ * Main Responsibilities:
+ * - Serve "/uploads/{name}" with ETag and Last-Modified validation.
+ * - Mark content-hashed names as immutable for a year, so browsers and proxies never revalidate them.
+ * - Answer small hot files (thumbnails) from memory and hand large ones to the container's
+ *   sendfile support, so the file is copied by the kernel instead of through the JVM.
+ * - Fall back to a regular (range-capable) resource response otherwise.
+ *
+ * Component Relationships:
+ * - Templates link to "/uploads/..." for food images and their variants.
+ *
+ * Dependencies:
+ * - UploadStoreService: Resolves names to files and caches hot files in memory.
+ *
+ * Security Considerations:
+ * - Only plain file names inside the store are served; anything with a path separator is a 404.
+ */
+@Controller
+public class UploadController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private UploadStoreService uploadStoreService;
+
+    @Value("${restaurant.uploads.legacy-max-age-seconds:3600}")
+    private long legacyMaxAgeSeconds;
+
+    @Value("${restaurant.uploads.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    /**
+     * Serves an uploaded file.
+     *
+     * @param name the file name
+     * @param webRequest the WebRequest used to evaluate the conditional headers
+     * @param request the servlet request, used to hand the file to sendfile
+     * @param response the servlet response
+     * @return the file, or null if the response was already completed (304 or sendfile)
+     * @throws IOException if the file cannot be read
+     */
+    @GetMapping("/uploads/{name:.+}")
+    public ResponseEntity<Resource> serve(@PathVariable String name, WebRequest webRequest,
+                                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = uploadStoreService.resolve(name).orElse(null);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        boolean immutable = uploadStoreService.isImmutable(name);
+        String eTag = immutable ? "\"" + name + "\"" : "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+        CacheControl cacheControl = immutable
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                : CacheControl.maxAge(Duration.ofSeconds(legacyMaxAgeSeconds)).cachePublic();
+        MediaType contentType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        // Sets ETag and Last-Modified, and answers 304 if the client's copy is current
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+
+        byte[] hot = uploadStoreService.getHotContent(name, file, size, lastModified);
+        if (hot != null) {
+            return ResponseEntity.ok().contentType(contentType).body(new ByteArrayResource(hot));
+        }
+
+        if (size >= sendfileMinBytes && "GET".equals(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(size);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return null; // The container writes the file after the request returns.
+        }
+        // Range requests and containers without sendfile
+        return ResponseEntity.ok().contentType(contentType).body(new FileSystemResource(file));
+    }
+
+    /**
+     * Retrieves the statistics of the in-memory cache of hot uploads.
+     * Only administrators may read them (see SecurityConfig).
+     *
+     * @return the cache statistics
+     */
+    @GetMapping("/api/uploads/cache-stats")
+    @ResponseBody
+    public Map<String, Object> cacheStats() {
+        return uploadStoreService.getStats();
+    }
+}
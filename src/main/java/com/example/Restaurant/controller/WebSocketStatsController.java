@@ -0,0 +1,41 @@
+package com.example.Restaurant.controller;
+
+import com.example.Restaurant.services.WebSocketMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * The WebSocketStatsController class exposes the statistics of the live order and stock updates.
+ *
+ * Main Responsibilities:
+ * - Report the queue depth of every open WebSocket session, so slow tablets can be spotted.
+ *
+ * Component Relationships:
+ * - Sessions are opened by the kitchen, waiter and admin pages on "/ws-orders".
+ *
+ * Dependencies:
+ * - WebSocketMetricsService: Collects the per-session and broker statistics.
+ *
+ * Security Considerations:
+ * - The statistics contain user names and addresses but no message content, so SecurityConfig
+ *   restricts this endpoint to administrators.
+ */
+@RestController
+public class WebSocketStatsController {
+
+    @Autowired
+    private WebSocketMetricsService webSocketMetricsService;
+
+    /**
+     * Retrieves the statistics of the open WebSocket sessions and the message broker.
+     *
+     * @return the statistics
+     */
+    @GetMapping("/api/websocket/stats")
+    public Map<String, Object> stats() {
+        return webSocketMetricsService.getStats();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.Restaurant.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, flattened view of a Recipe: the ingredient IDs and amounts
+ * needed to prepare one portion of a food.
+ * This class is not an entity; it is compiled once from a Recipe and cached,
+ * so stock checks do not need to walk the lazy Recipe.getIngredients() list.
+ */
+public final class BillOfMaterials {
+
+    /**
+     * The ID of the food this bill of materials belongs to.
+     */
+    private final Long foodId;
+
+    /**
+     * The ingredient IDs, parallel to amounts.
+     */
+    private final long[] ingredientIds;
+
+    /**
+     * The amount of each ingredient needed for one portion, parallel to ingredientIds.
+     */
+    private final double[] amounts;
+
+    private BillOfMaterials(Long foodId, long[] ingredientIds, double[] amounts) {
+        this.foodId = foodId;
+        this.ingredientIds = ingredientIds;
+        this.amounts = amounts;
+    }
+
+    /**
+     * Compiles a recipe into a bill of materials.
+     * Ingredients listed more than once in the recipe are kept as separate entries;
+     * callers summing requirements per ingredient handle them naturally.
+     *
+     * @param recipe the recipe to compile, with its ingredients loaded
+     * @return the compiled bill of materials
+     */
+    public static BillOfMaterials of(Recipe recipe) {
+        List<RecipeIngredient> ingredients = recipe.getIngredients();
+        long[] ingredientIds = new long[ingredients.size()];
+        double[] amounts = new double[ingredients.size()];
+        for (int i = 0; i < ingredients.size(); i++) {
+            RecipeIngredient recipeIngredient = ingredients.get(i);
+            ingredientIds[i] = recipeIngredient.getIngredient().getId();
+            amounts[i] = recipeIngredient.getAmount() != null ? recipeIngredient.getAmount() : 0.0;
+        }
+        return new BillOfMaterials(recipe.getFood().getId(), ingredientIds, amounts);
+    }
+
+    /**
+     * Gets the ID of the food this bill of materials belongs to.
+     *
+     * @return the food ID
+     */
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    /**
+     * Gets the number of ingredient entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return ingredientIds.length;
+    }
+
+    /**
+     * Gets the ingredient ID of an entry.
+     *
+     * @param index the entry index
+     * @return the ingredient ID
+     */
+    public long getIngredientId(int index) {
+        return ingredientIds[index];
+    }
+
+    /**
+     * Gets the amount of an entry needed for one portion.
+     *
+     * @param index the entry index
+     * @return the amount per portion
+     */
+    public double getAmount(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * Adds the ingredient amounts for the given number of portions to a requirements map.
+     *
+     * @param requirements the required amount per ingredient ID, updated in place
+     * @param quantity the number of portions
+     */
+    public void addTo(Map<Long, Double> requirements, int quantity) {
+        for (int i = 0; i < ingredientIds.length; i++) {
+            requirements.merge(ingredientIds[i], amounts[i] * quantity, Double::sum);
+        }
+    }
+}
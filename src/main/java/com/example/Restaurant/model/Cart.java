@@ -0,0 +1,165 @@
+package com.example.Restaurant.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the shopping cart of a single HTTP session.
+ * This class is not an entity; carts live in memory only and their items are
+ * turned into order items when the guest checks out.
+ *
+ * All methods are synchronized, so two requests from the same session (for
+ * example a double-clicked "Add to cart" button) cannot corrupt the item list.
+ * Carts of different sessions never share a lock.
+ */
+public class Cart {
+
+    /**
+     * The items in the cart, in the order they were first added.
+     */
+    private final List<CartItem> items = new ArrayList<>();
+
+    /**
+     * The ID given to the next new cart item, unique within this cart.
+     */
+    private long nextItemId = 1;
+
+    /**
+     * The total quantity of all items, kept up to date by every change so the
+     * cart badge never has to walk the item list.
+     */
+    private volatile int itemCount;
+
+    /**
+     * The time (System.currentTimeMillis) this cart was last used.
+     */
+    private volatile long lastAccessed = System.currentTimeMillis();
+
+    /**
+     * Adds a food item to the cart.
+     * If the food is already in the cart its quantity is increased instead of adding a second line.
+     *
+     * @param food the food item to add
+     * @param quantity the quantity to add
+     * @throws IllegalArgumentException if the quantity is not positive
+     */
+    public synchronized void add(Food food, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        for (CartItem item : items) {
+            if (item.getFood().getId().equals(food.getId())) {
+                item.setQuantity(item.getQuantity() + quantity);
+                itemCount += quantity;
+                return;
+            }
+        }
+        CartItem item = new CartItem();
+        item.setId(nextItemId++);
+        item.setFood(food);
+        item.setQuantity(quantity);
+        items.add(item);
+        itemCount += quantity;
+    }
+
+    /**
+     * Changes the quantity of a cart item, removing it when the quantity is zero or less.
+     *
+     * @param itemId the ID of the cart item
+     * @param quantity the new quantity
+     * @throws IllegalArgumentException if the cart has no item with the given ID
+     */
+    public synchronized void update(Long itemId, int quantity) {
+        CartItem item = items.stream()
+                .filter(candidate -> candidate.getId().equals(itemId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid item Id:" + itemId));
+        if (quantity <= 0) {
+            items.remove(item);
+            itemCount -= item.getQuantity();
+        } else {
+            itemCount += quantity - item.getQuantity();
+            item.setQuantity(quantity);
+        }
+    }
+
+    /**
+     * Gets a snapshot of the items in the cart.
+     * Every line is copied, quantity included, so later changes to the cart do not
+     * show through while the snapshot is being turned into an order.
+     *
+     * @return copies of the cart items
+     */
+    public synchronized List<CartItem> getItems() {
+        List<CartItem> snapshot = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            CartItem copy = new CartItem();
+            copy.setId(item.getId());
+            copy.setFood(item.getFood());
+            copy.setQuantity(item.getQuantity());
+            copy.setTotalPrice(item.getTotalPrice());
+            snapshot.add(copy);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the total quantity of all items in the cart.
+     * Reads the running counter without locking the cart.
+     *
+     * @return the total item count
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Checks if the cart is empty.
+     *
+     * @return true if the cart has no items, false otherwise
+     */
+    public synchronized boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Removes the given quantities from the cart.
+     * Used after checkout with the snapshot taken by getItems, so items added while the
+     * order was being placed are kept: a line only loses the quantity that was checked out,
+     * and is removed once nothing is left of it.
+     *
+     * @param checkedOut the items that were turned into an order
+     */
+    public synchronized void removeAll(List<CartItem> checkedOut) {
+        for (CartItem checkedOutItem : checkedOut) {
+            for (CartItem item : items) {
+                if (item.getId().equals(checkedOutItem.getId())) {
+                    int removed = Math.min(checkedOutItem.getQuantity(), item.getQuantity());
+                    if (removed == item.getQuantity()) {
+                        items.remove(item);
+                    } else {
+                        item.setQuantity(item.getQuantity() - removed);
+                    }
+                    itemCount -= removed;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the cart as used now.
+     */
+    public void touch() {
+        lastAccessed = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets the time this cart was last used.
+     *
+     * @return the last access time in milliseconds since the epoch
+     */
+    public long getLastAccessed() {
+        return lastAccessed;
+    }
+}
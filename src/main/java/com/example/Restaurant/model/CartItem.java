@@ -1,12 +1,12 @@
 package com.example.Restaurant.model;
 
-    import jakarta.persistence.*;
-
     /**
      * The CartItem class represents an item in a shopping cart in the restaurant application.
      *
      * Main Responsibilities:
      * - Track the food item, quantity, and total price for each cart item.
+     * - Cart items are held in memory by their Cart and are not persisted; they become
+     *   OrderItem rows when the cart is checked out.
      *
      * Component Relationships:
      * - Interacts with the Food entity to get food details and price.
@@ -17,13 +17,9 @@ package com.example.Restaurant.model;
      * Security Considerations:
      * - Ensure proper validation of quantity and total price.
      */
-    @Entity
     public class CartItem {
-        @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
         private Long id;
 
-        @ManyToOne
         private Food food;
 
         private Integer quantity;
@@ -38,7 +34,7 @@ package com.example.Restaurant.model;
         }
 
         /**
-         * Gets the ID of the cart item.
+         * Gets the ID of the cart item, unique within its cart.
          *
          * @return the ID of the cart item
          */
@@ -0,0 +1,25 @@
+package com.example.Restaurant.model;
+
+import java.util.List;
+
+/**
+ * The answer to a client resuming an event stream after a reconnect.
+ * Either events holds everything the client missed, or, when the client is too far
+ * behind (or the application restarted), snapshot holds the full current state.
+ *
+ * @param epoch the run of the application the sequence numbers belong to
+ * @param seq the sequence number the client is at after applying this replay
+ * @param events the missed events, oldest first, or null if a snapshot is sent
+ * @param snapshot the full current state, or null if the missed events are sent
+ */
+public record EventReplay(String epoch, long seq, List<Entry> events, Object snapshot) {
+
+    /**
+     * One event of a stream with its sequence number.
+     *
+     * @param seq the sequence number of the event
+     * @param event the event as it was sent
+     */
+    public record Entry(long seq, Object event) {
+    }
+}
@@ -60,6 +60,18 @@ public class Ingredient {
      */
     @Transient // This field is not stored in the database
     public String getStockStatus() {
+        return stockStatus(currentStock, threshold);
+    }
+
+    /**
+     * Calculates the stock status for a given stock and threshold.
+     * Shared with StockSummary, which counts the statuses without loading the entities.
+     *
+     * @param currentStock the current stock
+     * @param threshold the low-stock threshold
+     * @return the stock status
+     */
+    public static String stockStatus(double currentStock, double threshold) {
         if (currentStock <= 0) {
             return "OUT_OF_STOCK";
         } else if (currentStock <= threshold) {
@@ -0,0 +1,34 @@
+package com.example.Restaurant.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the kitchen and waiter screens need to show an order: its table, age, status
+ * and lines. Sent as the active-order snapshot and loaded without touching the
+ * Order entity or its lazy associations.
+ *
+ * @param id the ID of the order
+ * @param tableNumber the table the order was placed at
+ * @param orderTime the time the order was placed
+ * @param status the current status of the order
+ * @param version the version of the order, compared against order events
+ * @param orderItems the lines of the order
+ */
+public record KitchenTicket(Long id, String tableNumber, LocalDateTime orderTime, OrderStatus status, Long version,
+                            List<OrderLineView> orderItems) {
+
+    /**
+     * Creates a ticket without lines; used by the JPQL constructor projection, the lines are added afterwards.
+     *
+     * @param id the ID of the order
+     * @param tableNumber the table the order was placed at
+     * @param orderTime the time the order was placed
+     * @param status the current status of the order
+     * @param version the version of the order
+     */
+    public KitchenTicket(Long id, String tableNumber, LocalDateTime orderTime, OrderStatus status, Long version) {
+        this(id, tableNumber, orderTime, status, version, new ArrayList<>());
+    }
+}
@@ -8,21 +8,28 @@ package com.example.Restaurant.model;
     /**
      * Represents an order placed by a customer.
      * This entity is mapped to the "customer_orders" table in the database.
+     * The table is indexed on (status, order_time) for the kitchen queue and on
+     * order_time for time-windowed history queries.
      *
      * Relationships:
      * - One-to-many relationship with OrderItem.
      */
     @Entity
-    @Table(name = "customer_orders")
+    @Table(name = "customer_orders", indexes = {
+            @Index(name = "idx_customer_orders_status_time", columnList = "status, order_time"),
+            @Index(name = "idx_customer_orders_order_time", columnList = "order_time")
+    })
     public class Order {
 
         /**
          * The unique identifier for the order.
          * This field is mapped to the "id" column in the "customer_orders" table.
-         * It is auto-generated by the database.
+         * It is taken from the "customer_orders_seq" sequence, which hands out blocks of
+         * 50 IDs so inserts can be batched (IDENTITY columns disable JDBC batching).
          */
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_orders_seq")
+        @SequenceGenerator(name = "customer_orders_seq", sequenceName = "customer_orders_seq", allocationSize = 50)
         private Long id;
 
         /**
@@ -59,9 +66,11 @@ package com.example.Restaurant.model;
         /**
          * The status of the order.
          * This field is mapped to the "status" column in the "customer_orders" table.
-         * It represents the current status of the order (Pending, Preparing, Ready, Delivered).
+         * It represents the current status of the order (Pending, Preparing, Ready, Delivered),
+         * stored as its label by OrderStatusConverter. Changes go through OrderService, which
+         * only allows the transitions defined by OrderStatus.
          */
-        private String status;
+        private OrderStatus status;
 
         /**
          * The time when the order was delivered.
@@ -70,13 +79,24 @@ package com.example.Restaurant.model;
          */
         private LocalDateTime deliveryTime;
 
+        /**
+         * The optimistic-locking version of the order.
+         * This field is mapped to the "version" column in the "customer_orders" table.
+         * It is incremented on every update (status changes bump it in their compare-and-set
+         * UPDATE) and carried by order events so clients can discard deltas that are older
+         * than the state they already hold.
+         */
+        @Version
+        @Column(columnDefinition = "bigint default 0")
+        private Long version;
+
         /**
          * Default constructor.
          * Initializes the order time to the current time and sets the status to "Pending".
          */
         public Order() {
             this.orderTime = LocalDateTime.now();
-            this.status = "Pending";
+            this.status = OrderStatus.NEW;
         }
 
         /**
@@ -189,7 +209,7 @@ package com.example.Restaurant.model;
          *
          * @return the status of the order
          */
-        public String getStatus() {
+        public OrderStatus getStatus() {
             return status;
         }
 
@@ -198,7 +218,7 @@ package com.example.Restaurant.model;
          *
          * @param status the status to set
          */
-        public void setStatus(String status) {
+        public void setStatus(OrderStatus status) {
             this.status = status;
         }
 
@@ -220,6 +240,24 @@ package com.example.Restaurant.model;
             this.deliveryTime = deliveryTime;
         }
 
+        /**
+         * Gets the optimistic-locking version of the order.
+         *
+         * @return the version of the order
+         */
+        public Long getVersion() {
+            return version;
+        }
+
+        /**
+         * Sets the optimistic-locking version of the order.
+         *
+         * @param version the version to set
+         */
+        public void setVersion(Long version) {
+            this.version = version;
+        }
+
         /**
          * Helper method to calculate the total price based on the order items.
          * Sums up the prices of all items in the order.
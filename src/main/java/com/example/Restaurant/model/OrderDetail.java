@@ -0,0 +1,38 @@
+package com.example.Restaurant.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full read view of an order, returned by the order API instead of the Order entity.
+ * Lines carry the food's ID and name only.
+ *
+ * @param id the ID of the order
+ * @param tableNumber the table the order was placed at
+ * @param orderTime the time the order was placed
+ * @param deliveryTime the time the order was delivered, or null
+ * @param status the current status of the order
+ * @param version the version of the order
+ * @param totalPrice the total price of the order
+ * @param orderItems the lines of the order
+ */
+public record OrderDetail(Long id, String tableNumber, LocalDateTime orderTime, LocalDateTime deliveryTime,
+                          OrderStatus status, Long version, Double totalPrice, List<OrderLineView> orderItems) {
+
+    /**
+     * Creates a detail view without lines; used by the JPQL constructor projection, the lines are added afterwards.
+     *
+     * @param id the ID of the order
+     * @param tableNumber the table the order was placed at
+     * @param orderTime the time the order was placed
+     * @param deliveryTime the time the order was delivered, or null
+     * @param status the current status of the order
+     * @param version the version of the order
+     * @param totalPrice the total price of the order
+     */
+    public OrderDetail(Long id, String tableNumber, LocalDateTime orderTime, LocalDateTime deliveryTime,
+                       OrderStatus status, Long version, Double totalPrice) {
+        this(id, tableNumber, orderTime, deliveryTime, status, version, totalPrice, new ArrayList<>());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.Restaurant.model;
+
+/**
+ * Represents a change to a single order, broadcast to the kitchen and waiter order topics.
+ * This class is not an entity; it is the WebSocket payload that replaces
+ * rebroadcasting the full order list on every status change.
+ *
+ * Clients load the active orders once through the snapshot subscription and
+ * then apply these deltas locally, ignoring any event whose version is not
+ * newer than the order they already hold.
+ */
+public class OrderEvent {
+
+    /**
+     * The kind of change an order event describes.
+     */
+    public enum Type {
+        ORDER_CREATED,
+        STATUS_CHANGED,
+        DELIVERED
+    }
+
+    /**
+     * The kind of change that happened to the order.
+     */
+    private Type type;
+
+    /**
+     * The ID of the order that changed.
+     */
+    private Long orderId;
+
+    /**
+     * The status of the order after the change.
+     */
+    private OrderStatus status;
+
+    /**
+     * The version of the order after the change.
+     */
+    private Long version;
+
+    /**
+     * Default constructor.
+     * Required for JSON deserialization.
+     */
+    public OrderEvent() {}
+
+    /**
+     * Full constructor.
+     *
+     * @param type the kind of change
+     * @param orderId the ID of the order that changed
+     * @param status the status of the order after the change
+     * @param version the version of the order after the change
+     */
+    public OrderEvent(Type type, Long orderId, OrderStatus status, Long version) {
+        this.type = type;
+        this.orderId = orderId;
+        this.status = status;
+        this.version = version;
+    }
+
+    /**
+     * Creates an event describing the current state of the given order.
+     *
+     * @param type the kind of change
+     * @param order the order that changed
+     * @return the order event
+     */
+    public static OrderEvent of(Type type, Order order) {
+        return new OrderEvent(type, order.getId(), order.getStatus(), order.getVersion());
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return the event type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the order that changed.
+     *
+     * @return the order ID
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the status of the order after the change.
+     *
+     * @return the order status
+     */
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the version of the order after the change.
+     *
+     * @return the order version
+     */
+    public Long getVersion() {
+        return version;
+    }
+}
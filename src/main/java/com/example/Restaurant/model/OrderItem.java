@@ -17,10 +17,12 @@ public class OrderItem {
     /**
      * The unique identifier for the order item.
      * This field is mapped to the "id" column in the "order_items" table.
-     * It is auto-generated by the database.
+     * It is taken from the "order_item_seq" sequence in blocks of 50, so all lines of
+     * an order can be inserted with one batched statement.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment ID
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq") // Pooled sequence ID
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,17 @@
+package com.example.Restaurant.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A read-only line of an order, loaded with a JPQL constructor projection.
+ * It carries only the food's ID and name instead of the full Food entity, so
+ * payloads no longer include food descriptions and image names.
+ *
+ * @param orderId the ID of the order the line belongs to (used for grouping, not serialized)
+ * @param foodId the ID of the ordered food
+ * @param foodName the name of the ordered food
+ * @param quantity the ordered quantity
+ * @param price the price of the line
+ */
+public record OrderLineView(@JsonIgnore Long orderId, Long foodId, String foodName, Integer quantity, Double price) {
+}
@@ -1,9 +1,92 @@
 // OrderStatus.java
 package com.example.Restaurant.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The lifecycle of an order, with the transitions the kitchen and waiters may make.
+ *
+ * NEW -> PREPARING -> READY -> DELIVERED, where the kitchen may also mark a new
+ * order READY directly. Every status is stored and serialized as its label
+ * ("Pending", "Preparing", "Ready", "Delivered"), the values the screens and
+ * existing rows already use.
+ */
 public enum OrderStatus {
-    NEW,
-    PREPARING,
-    READY,
-    DELIVERED,
-}
\ No newline at end of file
+    NEW("Pending"),
+    PREPARING("Preparing"),
+    READY("Ready"),
+    DELIVERED("Delivered");
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the label stored in the database and sent to clients.
+     *
+     * @return the status label
+     */
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the statuses of orders that are still in the kitchen or waiting to be served.
+     *
+     * @return a new set containing NEW, PREPARING and READY
+     */
+    public static Set<OrderStatus> active() {
+        return EnumSet.of(NEW, PREPARING, READY);
+    }
+
+    /**
+     * Checks if an order in this status may move to the given status.
+     *
+     * @param next the requested status
+     * @return true if the transition is allowed, false otherwise
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case NEW -> next == PREPARING || next == READY;
+            case PREPARING -> next == READY;
+            case READY -> next == DELIVERED;
+            case DELIVERED -> false;
+        };
+    }
+
+    /**
+     * Checks that an order in this status may move to the given status.
+     *
+     * @param next the requested status
+     * @throws IllegalStateException if the transition is not allowed
+     */
+    public void checkTransitionTo(OrderStatus next) {
+        if (!canTransitionTo(next)) {
+            throw new IllegalStateException("Cannot change order status from " + label + " to " + next.label);
+        }
+    }
+
+    /**
+     * Parses a status from its label or its constant name, ignoring case.
+     *
+     * @param value the label (e.g. "Pending") or name (e.g. "NEW")
+     * @return the matching status
+     * @throws IllegalArgumentException if the value matches no status
+     */
+    @JsonCreator
+    public static OrderStatus fromLabel(String value) {
+        for (OrderStatus status : values()) {
+            if (status.label.equalsIgnoreCase(value) || status.name().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid order status: " + value);
+    }
+}
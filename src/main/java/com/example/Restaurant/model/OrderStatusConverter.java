@@ -0,0 +1,22 @@
+package com.example.Restaurant.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an OrderStatus as its label ("Pending", "Preparing", "Ready", "Delivered"),
+ * so the "status" column keeps the values written before the enum was introduced.
+ */
+@Converter(autoApply = true)
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(OrderStatus status) {
+        return status != null ? status.getLabel() : null;
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(String label) {
+        return label != null ? OrderStatus.fromLabel(label) : null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.Restaurant.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A one-row summary of an order for the waiter view: table, status, total and the
+ * number of portions, without any lines. Loaded as a Spring Data interface
+ * projection, computed in a single grouped query.
+ */
+public interface OrderSummary {
+
+    Long getId();
+
+    String getTableNumber();
+
+    OrderStatus getStatus();
+
+    Long getVersion();
+
+    LocalDateTime getOrderTime();
+
+    Double getTotalPrice();
+
+    /**
+     * Gets the total quantity of all lines of the order.
+     *
+     * @return the number of portions
+     */
+    Long getItemCount();
+}
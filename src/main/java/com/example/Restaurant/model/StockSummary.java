@@ -0,0 +1,138 @@
+package com.example.Restaurant.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated stock figures of all ingredients.
+ * This class is not an entity; it is computed in a single pass over the in-memory stock
+ * and thresholds, so pages that show the stock counters and the low-stock lists do not
+ * load every ingredient from the database.
+ */
+public class StockSummary {
+
+    /**
+     * The stock status buckets, in the order returned by Ingredient.getStockStatus().
+     */
+    private static final List<String> STATUSES = List.of("OUT_OF_STOCK", "LOW_STOCK", "MEDIUM_STOCK", "WELL_STOCKED");
+
+    /**
+     * The total number of ingredients summarized.
+     */
+    private final int totalCount;
+
+    /**
+     * The number of ingredients per stock status.
+     */
+    private final Map<String, Long> statusCounts;
+
+    /**
+     * The IDs of the ingredients whose current stock is at or below their threshold (including out of stock),
+     * the same rule as the low-stock alert.
+     */
+    private final List<Long> lowStockIds;
+
+    /**
+     * The IDs of the ingredients whose current stock is below their threshold.
+     */
+    private final List<Long> belowThresholdIds;
+
+    private StockSummary(int totalCount, Map<String, Long> statusCounts, List<Long> lowStockIds, List<Long> belowThresholdIds) {
+        this.totalCount = totalCount;
+        this.statusCounts = Collections.unmodifiableMap(statusCounts);
+        this.lowStockIds = Collections.unmodifiableList(lowStockIds);
+        this.belowThresholdIds = Collections.unmodifiableList(belowThresholdIds);
+    }
+
+    /**
+     * Summarizes the stock of all ingredients in a single pass.
+     *
+     * @param stockLevels the current stock per ingredient ID
+     * @param thresholds the low-stock threshold per ingredient ID
+     * @return the stock summary
+     */
+    public static StockSummary of(Map<Long, Double> stockLevels, Map<Long, Double> thresholds) {
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        STATUSES.forEach(status -> statusCounts.put(status, 0L));
+        List<Long> lowStockIds = new ArrayList<>();
+        List<Long> belowThresholdIds = new ArrayList<>();
+
+        stockLevels.forEach((ingredientId, currentStock) -> {
+            double threshold = thresholds.getOrDefault(ingredientId, 0.0);
+            statusCounts.merge(Ingredient.stockStatus(currentStock, threshold), 1L, Long::sum);
+            if (currentStock <= threshold) {
+                lowStockIds.add(ingredientId);
+            }
+            if (currentStock < threshold) {
+                belowThresholdIds.add(ingredientId);
+            }
+        });
+        return new StockSummary(stockLevels.size(), statusCounts, lowStockIds, belowThresholdIds);
+    }
+
+    /**
+     * Gets the total number of ingredients.
+     *
+     * @return the total count
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the number of ingredients per stock status.
+     *
+     * @return the counts keyed by stock status
+     */
+    public Map<String, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    /**
+     * Gets the number of ingredients that are out of stock.
+     *
+     * @return the out-of-stock count
+     */
+    public long getOutOfStockCount() {
+        return statusCounts.get("OUT_OF_STOCK");
+    }
+
+    /**
+     * Gets the number of ingredients at or below their threshold, including out-of-stock ones.
+     *
+     * @return the low-stock count
+     */
+    public long getLowStockCount() {
+        return lowStockIds.size();
+    }
+
+    /**
+     * Gets the number of ingredients above their threshold.
+     *
+     * @return the well-stocked count
+     */
+    public long getWellStockedCount() {
+        return statusCounts.get("MEDIUM_STOCK") + statusCounts.get("WELL_STOCKED");
+    }
+
+    /**
+     * Gets the IDs of the ingredients at or below their threshold, including out-of-stock ones.
+     *
+     * @return the low-stock ingredient IDs
+     */
+    public List<Long> getLowStockIds() {
+        return lowStockIds;
+    }
+
+    /**
+     * Gets the IDs of the ingredients below their threshold, as listed on the threshold page.
+     *
+     * @return the below-threshold ingredient IDs
+     */
+    public List<Long> getBelowThresholdIds() {
+        return belowThresholdIds;
+    }
+}
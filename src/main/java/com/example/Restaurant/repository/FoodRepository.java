@@ -22,4 +22,13 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
      * @return a list of food items in the specified category
      */
     List<Food> findByCategory(String category);
+
+    /**
+     * Checks if any food item uses the given image.
+     * Image names are content hashes, so several food items may share one file.
+     *
+     * @param image the stored image file name
+     * @return true if at least one food item uses the image, false otherwise
+     */
+    boolean existsByImage(String image);
 }
\ No newline at end of file
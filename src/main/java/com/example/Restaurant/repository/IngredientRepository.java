@@ -2,6 +2,9 @@ package com.example.Restaurant.repository;
 
 import com.example.Restaurant.model.Ingredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -19,5 +22,27 @@ public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
     // - deleteById(ID id): Deletes the entity with the given id.
     // - etc.
 
-    // No custom queries are defined in this repository.
+    /**
+     * Subtracts an amount from the current stock of an ingredient in a single update statement.
+     * Used by the stock ledger to write back accumulated deductions without loading the entity.
+     *
+     * @param id the ID of the ingredient to update
+     * @param amount the amount to subtract from the current stock
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE Ingredient i SET i.currentStock = i.currentStock - :amount WHERE i.id = :id")
+    int deductStock(@Param("id") Long id, @Param("amount") Double amount);
+
+    /**
+     * Sets the current stock of an ingredient in a single update statement.
+     * Used by the stock ledger to correct a value that a concurrent deduction may have overwritten.
+     *
+     * @param id the ID of the ingredient to update
+     * @param stock the current stock to set
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE Ingredient i SET i.currentStock = :stock WHERE i.id = :id")
+    int setStock(@Param("id") Long id, @Param("stock") Double stock);
 }
\ No newline at end of file
@@ -1,10 +1,23 @@
 package com.example.Restaurant.repository;
 
+import com.example.Restaurant.model.KitchenTicket;
 import com.example.Restaurant.model.Order;
+import com.example.Restaurant.model.OrderDetail;
+import com.example.Restaurant.model.OrderLineView;
+import com.example.Restaurant.model.OrderStatus;
+import com.example.Restaurant.model.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing Order entities.
@@ -15,11 +28,131 @@ import java.util.List;
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     /**
-     * Finds all orders by their status.
-     * This method generates a query to select orders where the status matches the given parameter.
+     * Finds one page of the kitchen queue: the IDs of orders in the given statuses placed
+     * since the given time, oldest first.
+     * Served from the (status, order_time) index; only IDs are read, so paging happens in
+     * the database even though the orders themselves are fetched with their items.
      *
-     * @param status the status of the orders to find
-     * @return a list of orders with the specified status
+     * @param statuses the statuses to include
+     * @param since the earliest order time to include
+     * @param pageable the page to read (the sort is fixed by the query)
+     * @return the order IDs of the page, oldest first
      */
-    List<Order> findByStatus(String status);
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.orderTime >= :since ORDER BY o.orderTime ASC, o.id ASC")
+    List<Long> findQueueIds(@Param("statuses") Collection<OrderStatus> statuses,
+                            @Param("since") LocalDateTime since,
+                            Pageable pageable);
+
+    /**
+     * Finds one page of the order history after a cursor: the IDs of orders with an ID greater
+     * than the cursor, in the given statuses and placed within [from, to), in ID order.
+     * Because the cursor is the last ID already returned, every page costs the same no matter
+     * how deep into the history it is (no OFFSET).
+     *
+     * @param after the last order ID of the previous page, 0 for the first page
+     * @param statuses the statuses to include
+     * @param from the earliest order time to include
+     * @param to the order time to stop before
+     * @param pageable the page size (the page number must be 0)
+     * @return the order IDs of the page, in ascending order
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.id > :after AND o.status IN :statuses " +
+            "AND o.orderTime >= :from AND o.orderTime < :to ORDER BY o.id ASC")
+    List<Long> findHistoryIds(@Param("after") Long after,
+                              @Param("statuses") Collection<OrderStatus> statuses,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to,
+                              Pageable pageable);
+
+    /**
+     * Fetches orders together with their items and foods in a single query, oldest first.
+     *
+     * @param ids the IDs of the orders to fetch
+     * @return the orders with their items and foods loaded
+     */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.food"})
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.orderTime ASC, o.id ASC")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads kitchen tickets (without their lines) for the given orders, oldest first.
+     *
+     * @param ids the IDs of the orders
+     * @return the tickets, with empty line lists
+     */
+    @Query("SELECT new com.example.Restaurant.model.KitchenTicket(o.id, o.tableNumber, o.orderTime, o.status, COALESCE(o.version, 0)) " +
+            "FROM Order o WHERE o.id IN :ids ORDER BY o.orderTime ASC, o.id ASC")
+    List<KitchenTicket> findTicketsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads detail views (without their lines) for the given orders, in ID order.
+     *
+     * @param ids the IDs of the orders
+     * @return the detail views, with empty line lists
+     */
+    @Query("SELECT new com.example.Restaurant.model.OrderDetail(o.id, o.tableNumber, o.orderTime, o.deliveryTime, " +
+            "o.status, COALESCE(o.version, 0), o.totalPrice) FROM Order o WHERE o.id IN :ids ORDER BY o.id ASC")
+    List<OrderDetail> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads the lines of the given orders with only the food ID and name, in one query.
+     *
+     * @param orderIds the IDs of the orders
+     * @return the lines of all given orders, in insertion order
+     */
+    @Query("SELECT new com.example.Restaurant.model.OrderLineView(oi.order.id, f.id, f.name, oi.quantity, oi.price) " +
+            "FROM OrderItem oi JOIN oi.food f WHERE oi.order.id IN :orderIds ORDER BY oi.id ASC")
+    List<OrderLineView> findLinesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Loads waiter summaries for the given orders, oldest first.
+     *
+     * @param ids the IDs of the orders
+     * @return one summary per order, with the portion count summed in the database
+     */
+    @Query("SELECT o.id AS id, o.tableNumber AS tableNumber, o.status AS status, COALESCE(o.version, 0) AS version, " +
+            "o.orderTime AS orderTime, o.totalPrice AS totalPrice, COALESCE(SUM(oi.quantity), 0) AS itemCount " +
+            "FROM Order o LEFT JOIN o.orderItems oi WHERE o.id IN :ids " +
+            "GROUP BY o.id, o.tableNumber, o.status, o.version, o.orderTime, o.totalPrice " +
+            "ORDER BY o.orderTime ASC, o.id ASC")
+    List<OrderSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The status and version of an order, read without loading the order or its items.
+     */
+    interface StatusView {
+        OrderStatus getStatus();
+
+        Long getVersion();
+    }
+
+    /**
+     * Finds the status and version of an order.
+     *
+     * @param id the ID of the order
+     * @return an Optional containing the status and version, or an empty Optional if the order does not exist
+     */
+    @Query("SELECT o.status AS status, COALESCE(o.version, 0) AS version FROM Order o WHERE o.id = :id")
+    Optional<StatusView> findStatusById(@Param("id") Long id);
+
+    /**
+     * Moves an order to a new status if it is still in the expected status and version.
+     * This is a single compare-and-set UPDATE; when another screen changed the order first
+     * no row matches and nothing is written.
+     *
+     * @param id the ID of the order
+     * @param expected the status the order must still have
+     * @param version the version the order must still have
+     * @param next the new status
+     * @param deliveryTime the delivery time to store (null unless the order is delivered)
+     * @return the number of updated rows, 1 on success and 0 if the order changed in the meantime
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :next, o.version = COALESCE(o.version, 0) + 1, o.deliveryTime = :deliveryTime " +
+            "WHERE o.id = :id AND o.status = :expected AND COALESCE(o.version, 0) = :version")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expected") OrderStatus expected,
+                            @Param("version") Long version,
+                            @Param("next") OrderStatus next,
+                            @Param("deliveryTime") LocalDateTime deliveryTime);
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.example.Restaurant.repository;
 
 import com.example.Restaurant.model.Recipe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +25,42 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
      * @return an Optional containing the recipe with the specified food ID, or an empty Optional if none found
      */
     Optional<Recipe> findByFoodId(Long foodId);
+
+    /**
+     * Finds a recipe by the associated food ID, fetching its ingredients in the same query.
+     * Used when compiling a recipe into a bill of materials, to avoid a second lazy load.
+     *
+     * @param foodId the ID of the food associated with the recipe to find
+     * @return an Optional containing the recipe with its ingredients, or an empty Optional if none found
+     */
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients ri LEFT JOIN FETCH ri.ingredient WHERE r.food.id = :foodId")
+    Optional<Recipe> findWithIngredientsByFoodId(@Param("foodId") Long foodId);
+
+    /**
+     * Checks if any recipe uses the given ingredient.
+     * This method generates a single exists query over the recipe ingredients instead of loading every recipe.
+     *
+     * @param ingredientId the ID of the ingredient to check
+     * @return true if at least one recipe uses the ingredient, false otherwise
+     */
+    boolean existsByIngredientsIngredientId(Long ingredientId);
+
+    /**
+     * Lists every (recipe ID, food ID, ingredient ID) triple.
+     * Used to build the in-memory ingredient-to-recipe index in one query.
+     *
+     * @return the usage triples of all recipes
+     */
+    @Query("SELECT ri.recipe.id, ri.recipe.food.id, ri.ingredient.id FROM RecipeIngredient ri")
+    List<Object[]> findAllIngredientUsages();
+
+    /**
+     * Lists the (recipe ID, food ID, ingredient ID) triples of a single recipe.
+     * Used to refresh the in-memory ingredient-to-recipe index after a recipe is saved.
+     *
+     * @param recipeId the ID of the recipe
+     * @return the usage triples of the recipe
+     */
+    @Query("SELECT ri.recipe.id, ri.recipe.food.id, ri.ingredient.id FROM RecipeIngredient ri WHERE ri.recipe.id = :recipeId")
+    List<Object[]> findIngredientUsagesByRecipeId(@Param("recipeId") Long recipeId);
 }
\ No newline at end of file
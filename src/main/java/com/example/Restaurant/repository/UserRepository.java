@@ -3,7 +3,11 @@ package com.example.Restaurant.repository;
 import com.example.Restaurant.model.Role;
 import com.example.Restaurant.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,4 +53,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return a list of users with the specified role
      */
     List<User> findByRole(Role role);
+
+    /**
+     * Replaces the password hash of a user in a single update statement.
+     * Used to re-hash a password with the current algorithm and cost after a successful login.
+     *
+     * @param username the username of the user to update
+     * @param password the new password hash
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Sets the last login time of a user in a single update statement, unless a later time is already stored.
+     * Used by the last-login writer to flush coalesced logins without loading the entity.
+     *
+     * @param username the username of the user to update
+     * @param lastLogin the time of the user's latest login
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.username = :username AND (u.lastLogin IS NULL OR u.lastLogin < :lastLogin)")
+    int updateLastLogin(@Param("username") String username, @Param("lastLogin") LocalDateTime lastLogin);
 }
\ No newline at end of file
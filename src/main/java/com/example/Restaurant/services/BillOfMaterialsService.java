@@ -0,0 +1,104 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.BillOfMaterials; // Import the BillOfMaterials model class.
+import com.example.Restaurant.repository.RecipeRepository; // Import the RecipeRepository interface.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.transaction.support.TransactionSynchronization; // Import the TransactionSynchronization interface.
+import org.springframework.transaction.support.TransactionSynchronizationManager; // Import the TransactionSynchronizationManager class.
+
+import java.util.Map; // Import the Map interface.
+import java.util.Optional; // Import the Optional class.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+import java.util.concurrent.atomic.AtomicLong; // Import the AtomicLong class.
+
+/**
+ * Service class caching the compiled bill of materials of every food.
+ *
+ * Main purpose of this service:
+ * - To turn per-order stock checks into in-memory arithmetic instead of one recipe
+ *   query plus one lazy ingredient load per order item.
+ *
+ * Business features it provides:
+ * - Fetching the bill of materials for a food, compiling and caching it on first use.
+ * - Remembering foods without a recipe, so they are not queried again either.
+ * - Invalidating the cache when recipes change.
+ *
+ * Dependencies and component interactions:
+ * - RecipeRepository: Used to load a recipe with its ingredients in one query.
+ * - RecipeService: Calls invalidateAll after saving or deleting a recipe.
+ *
+ * Transaction handling:
+ * - This service performs read operations only and does not handle transactions.
+ *
+ * Security/validation considerations:
+ * - Cached entries are immutable and safe to share between threads.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class BillOfMaterialsService {
+
+    @Autowired // Injects the RecipeRepository dependency into this service.
+    private RecipeRepository recipeRepository;
+
+    private final Map<Long, Optional<BillOfMaterials>> cache = new ConcurrentHashMap<>(); // Compiled recipes per food ID.
+    private final AtomicLong generation = new AtomicLong(); // Bumped on every invalidation.
+
+    /**
+     * Fetches the bill of materials for a food.
+     *
+     * Business operation it performs:
+     * - Returns the cached bill of materials, compiling it from the recipe on a cache miss.
+     *
+     * Step by step logic:
+     * 1. Return the cached entry if present.
+     * 2. Otherwise load the recipe with its ingredients and compile it.
+     * 3. Cache the result unless the cache was invalidated while loading.
+     *
+     * Transaction behavior:
+     * - This method performs a read operation and does not modify any data.
+     *
+     * Error handling:
+     * - Returns an Optional.empty() if the food has no recipe.
+     *
+     * @param foodId the ID of the food
+     * @return an Optional containing the bill of materials, or an empty Optional if the food has no recipe
+     */
+    public Optional<BillOfMaterials> getBillOfMaterials(Long foodId) {
+        Optional<BillOfMaterials> cached = cache.get(foodId);
+        if (cached != null) {
+            return cached; // Cache hit, no database access.
+        }
+
+        long loadedGeneration = generation.get();
+        Optional<BillOfMaterials> compiled = recipeRepository.findWithIngredientsByFoodId(foodId)
+                .map(BillOfMaterials::of); // Compile the recipe into flat arrays.
+        if (generation.get() == loadedGeneration) { // Do not cache a recipe that changed while we were loading it.
+            cache.put(foodId, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Drops every cached bill of materials.
+     * Recipes change rarely, so clearing everything is cheaper than tracking which
+     * food a saved or deleted recipe used to belong to.
+     * When called inside a transaction the cache is cleared again after commit, so a
+     * concurrent reader cannot re-cache the recipe as it was before the change.
+     */
+    public void invalidateAll() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.Cart; // Import the Cart model class.
+import jakarta.servlet.http.HttpSession; // Import the HttpSession interface.
+import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
+import org.springframework.context.event.EventListener; // Import the EventListener annotation.
+import org.springframework.scheduling.annotation.Scheduled; // Import the Scheduled annotation.
+import org.springframework.security.web.session.HttpSessionDestroyedEvent; // Import the HttpSessionDestroyedEvent class.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.web.util.WebUtils; // Import the WebUtils class.
+
+import java.util.Comparator; // Import the Comparator interface.
+import java.util.Map; // Import the Map interface.
+import java.util.Optional; // Import the Optional class.
+import java.util.UUID; // Import the UUID class.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+
+/**
+ * Service class holding the shopping carts of all active sessions in memory.
+ *
+ * Main purpose of this service:
+ * - To give every HTTP session its own cart, so guests at different tables can
+ *   fill and check out their carts in parallel without seeing each other's items.
+ *
+ * Business features it provides:
+ * - Fetching (and creating on first use) the cart of a session.
+ * - Removing the cart of a session, and dropping it when the session is destroyed.
+ * - Evicting carts that have not been used for restaurant.cart.ttl-minutes minutes.
+ * - Bounding the number of carts to restaurant.cart.max-carts, evicting the least
+ *   recently used cart when the limit is reached.
+ *
+ * Dependencies and component interactions:
+ * - CartController: Uses this service to read and change the session's cart.
+ * - OrderController: Hands the session's cart items to OrderService at checkout.
+ *
+ * Transaction handling:
+ * - Carts are never written to the database; they become orders only at checkout.
+ *
+ * Security/validation considerations:
+ * - Carts are keyed by a random cart ID stored in the session, never exposed to other guests.
+ *   Unlike the session ID it survives the ID change on login (session fixation protection),
+ *   so a guest who signs in mid-order keeps their cart.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class CartService {
+
+    @Value("${restaurant.cart.max-carts:1000}") // Injects the maximum number of carts kept in memory.
+    private int maxCarts;
+
+    @Value("${restaurant.cart.ttl-minutes:120}") // Injects how long an unused cart is kept.
+    private long ttlMinutes;
+
+    static final String CART_ID_ATTRIBUTE = CartService.class.getName() + ".CART_ID"; // Session attribute holding the cart ID.
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>(); // Cart per cart ID.
+
+    /**
+     * Fetches the cart of a session, creating an empty one if it does not exist yet.
+     *
+     * Step by step logic:
+     * 1. Read the cart ID from the session, assigning one on first use.
+     * 2. Return the existing cart and mark it as used.
+     * 3. Otherwise make room if the store is full, then create and store a new cart.
+     *
+     * @param session the HTTP session
+     * @return the cart of the session
+     */
+    public Cart getCart(HttpSession session) {
+        String cartId = getOrCreateCartId(session);
+        Cart cart = carts.get(cartId);
+        if (cart == null) {
+            if (carts.size() >= maxCarts) {
+                evictLeastRecentlyUsed(); // Keep the store bounded.
+            }
+            cart = carts.computeIfAbsent(cartId, id -> new Cart());
+        }
+        cart.touch();
+        return cart;
+    }
+
+    /**
+     * Fetches the cart of a session without creating one.
+     *
+     * @param session the HTTP session
+     * @return an Optional containing the cart, or an empty Optional if the session has no cart
+     */
+    public Optional<Cart> findCart(HttpSession session) {
+        String cartId = (String) session.getAttribute(CART_ID_ATTRIBUTE);
+        Cart cart = cartId != null ? carts.get(cartId) : null;
+        if (cart != null) {
+            cart.touch();
+        }
+        return Optional.ofNullable(cart);
+    }
+
+    /**
+     * Removes the cart of a session.
+     *
+     * @param session the HTTP session
+     */
+    public void removeCart(HttpSession session) {
+        String cartId = (String) session.getAttribute(CART_ID_ATTRIBUTE);
+        if (cartId != null) {
+            carts.remove(cartId);
+        }
+    }
+
+    /**
+     * Drops the cart of a session that was invalidated (logout) or timed out,
+     * instead of keeping it until the time to live evicts it.
+     *
+     * @param event the event published by HttpSessionEventPublisher
+     */
+    @EventListener
+    public void sessionDestroyed(HttpSessionDestroyedEvent event) {
+        removeCart(event.getSession());
+    }
+
+    /**
+     * Evicts every cart that has not been used within the configured time to live.
+     */
+    @Scheduled(fixedDelay = 60000) // Runs once a minute.
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMinutes * 60000;
+        carts.entrySet().removeIf(entry -> entry.getValue().getLastAccessed() < cutoff);
+    }
+
+    private static String getOrCreateCartId(HttpSession session) {
+        synchronized (WebUtils.getSessionMutex(session)) { // Parallel first requests of a session must agree on one cart.
+            String cartId = (String) session.getAttribute(CART_ID_ATTRIBUTE);
+            if (cartId == null) {
+                cartId = UUID.randomUUID().toString();
+                session.setAttribute(CART_ID_ATTRIBUTE, cartId);
+            }
+            return cartId;
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        evictExpired(); // Expired carts go first.
+        while (carts.size() >= maxCarts) {
+            Optional<String> oldest = carts.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().getLastAccessed()))
+                    .map(Map.Entry::getKey);
+            if (oldest.isEmpty()) {
+                return;
+            }
+            carts.remove(oldest.get());
+        }
+    }
+}
@@ -2,11 +2,21 @@ package com.example.Restaurant.services;
 
 import com.example.Restaurant.model.User; // Import the User model class.
 import com.example.Restaurant.repository.UserRepository; // Import the UserRepository interface.
+import jakarta.annotation.PostConstruct; // Import the PostConstruct annotation.
 import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
 import org.springframework.security.core.userdetails.UserDetails; // Import the UserDetails interface.
+import org.springframework.security.core.userdetails.UserDetailsPasswordService; // Import the UserDetailsPasswordService interface.
 import org.springframework.security.core.userdetails.UserDetailsService; // Import the UserDetailsService interface.
 import org.springframework.security.core.userdetails.UsernameNotFoundException; // Import the UsernameNotFoundException class.
 import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.transaction.annotation.Transactional; // Import the Transactional annotation.
+import org.springframework.transaction.support.TransactionSynchronization; // Import the TransactionSynchronization interface.
+import org.springframework.transaction.support.TransactionSynchronizationManager; // Import the TransactionSynchronizationManager class.
+
+import java.util.LinkedHashMap; // Import the LinkedHashMap class.
+import java.util.Map; // Import the Map interface.
+import java.util.concurrent.atomic.AtomicLong; // Import the AtomicLong class.
 
 /**
  * Service class for managing user details.
@@ -16,24 +26,63 @@ import org.springframework.stereotype.Service; // Import the Service annotation.
  *
  * Business features it provides:
  * - Fetching user details from the database.
+ * - Caching the details of recently authenticated users, so repeated logins from staff
+ *   terminals do not query the database.
  * - Integrating with Spring Security for authentication.
+ * - Storing a re-hashed password after a login whose hash used an outdated algorithm or cost.
  *
  * Dependencies and component interactions:
- * - UserRepository: Used to fetch user data from the database.
+ * - UserRepository: Used to fetch user data from the database on a cache miss.
+ * - UserService: Evicts a user whenever it changes the user's password, role or status.
  *
  * Transaction handling:
  * - This service primarily deals with read operations and does not explicitly handle transactions.
+ * - Evictions requested inside a transaction are repeated after it commits, so a concurrent
+ *   login cannot re-cache the user as it was before the change.
  *
  * Security/validation considerations:
  * - Ensures that only valid and active users can be authenticated.
  * - Throws an exception if the user is not found or is inactive.
+ * - The cache is bounded (restaurant.user-cache.max-users) and entries expire after
+ *   restaurant.user-cache.ttl-seconds, so a change made outside UserService is picked up
+ *   within that time. Unknown usernames are never cached.
+ * - Every call returns a new UserDetails, because Spring Security erases the password of
+ *   the returned object after a successful login.
  */
 @Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired // Injects the UserRepository dependency into this service.
     private UserRepository userRepository;
 
+    @Value("${restaurant.user-cache.max-users:256}") // Injects the maximum number of cached users.
+    private int maxUsers;
+
+    @Value("${restaurant.user-cache.ttl-seconds:300}") // Injects how long a cached user is trusted.
+    private long ttlSeconds;
+
+    private Map<String, CachedUser> users; // Cached users by username, guarded by itself.
+    private final AtomicLong generation = new AtomicLong(); // Bumped on every eviction.
+
+    /**
+     * The fields of a user needed for authentication, with the time they expire.
+     */
+    private record CachedUser(String username, String password, String role, boolean active, long expiresAt) {
+    }
+
+    /**
+     * Creates the bounded cache once the configured size is known.
+     */
+    @PostConstruct
+    void init() {
+        users = new LinkedHashMap<>(16, 0.75f, true) { // Access order, so the eldest entry is the least recently used.
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
     /**
      * Loads user details by username.
      *
@@ -41,9 +90,11 @@ public class CustomUserDetailsService implements UserDetailsService {
      * - Loads user details required for authentication.
      *
      * Step by step logic:
-     * 1. Fetch the user from the UserRepository by username.
-     * 2. If the user is not found, throw a UsernameNotFoundException.
-     * 3. Construct a UserDetails object with the user's username, password, roles, and account status.
+     * 1. Use the cached user if present and not expired.
+     * 2. Otherwise fetch the user from the UserRepository by username.
+     * 3. If the user is not found, throw a UsernameNotFoundException.
+     * 4. Cache the user unless it was evicted while it was being loaded.
+     * 5. Construct a UserDetails object with the user's username, password, roles, and account status.
      *
      * Transaction behavior:
      * - This method performs a read operation and does not modify any data.
@@ -55,7 +106,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      * - Throws UsernameNotFoundException if the user is not found.
      *
      * Interactions with repositories/other services:
-     * - Interacts with UserRepository to fetch user data.
+     * - Interacts with UserRepository to fetch user data on a cache miss.
      *
      * Security checks:
      * - Ensures that the user is active before allowing authentication.
@@ -66,17 +117,99 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Fetch the user from the UserRepository by username.
-        User user = userRepository.findByUsername(username)
-                // If the user is not found, throw a UsernameNotFoundException.
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        CachedUser user;
+        synchronized (users) {
+            user = users.get(username);
+        }
+        if (user == null || user.expiresAt() < System.currentTimeMillis()) {
+            long loadedGeneration = generation.get();
+            // Fetch the user from the UserRepository by username.
+            User entity = userRepository.findByUsername(username)
+                    // If the user is not found, throw a UsernameNotFoundException.
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+            user = new CachedUser(entity.getUsername(), entity.getPassword(), entity.getRole().name(),
+                    entity.getIsActive(), System.currentTimeMillis() + ttlSeconds * 1000);
+            synchronized (users) {
+                if (generation.get() == loadedGeneration) { // Do not cache a user that changed while we were loading it.
+                    users.put(username, user);
+                }
+            }
+        }
 
         // Construct a UserDetails object with the user's username, password, roles, and account status.
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername()) // Set the username.
-                .password(user.getPassword()) // Set the password.
-                .roles(user.getRole().name()) // Set the roles.
-                .accountLocked(!user.getIsActive()) // Set the account locked status based on user activity.
+                .withUsername(user.username()) // Set the username.
+                .password(user.password()) // Set the password.
+                .roles(user.role()) // Set the roles.
+                .accountLocked(!user.active()) // Set the account locked status based on user activity.
                 .build(); // Build the UserDetails object.
     }
+
+    /**
+     * Stores a password re-hashed with the current algorithm and cost.
+     *
+     * Business operation it performs:
+     * - Called by Spring Security after a successful login whose stored hash needs an
+     *   upgrade (see SecurityConfig.passwordEncoder), so hashes follow configuration
+     *   changes without resetting any password.
+     *
+     * Step by step logic:
+     * 1. Update the password hash with a single UPDATE statement.
+     * 2. Evict the user from the cache.
+     * 3. Return the user details with the new hash.
+     *
+     * Transaction behavior:
+     * - Runs in its own transaction.
+     *
+     * Validation rules:
+     * - No specific validation rules; the new hash comes from the password encoder.
+     *
+     * Error handling:
+     * - No specific error handling; a failed update leaves the old hash, which still matches.
+     *
+     * Interactions with repositories/other services:
+     * - Interacts with UserRepository to store the new hash.
+     *
+     * Security checks:
+     * - Only invoked after the old password was verified.
+     *
+     * @param user the authenticated user
+     * @param newPassword the new password hash
+     * @return the user details with the new password hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword); // Store the new hash.
+        evict(user.getUsername()); // The cached hash is outdated.
+        return org.springframework.security.core.userdetails.User
+                .withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    /**
+     * Drops a user from the cache, so the next login reads the user from the database.
+     * Must be called whenever a user's password, role or status changes.
+     *
+     * @param username the username of the changed user
+     */
+    public void evict(String username) {
+        evictNow(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(username);
+                }
+            });
+        }
+    }
+
+    private void evictNow(String username) {
+        generation.incrementAndGet();
+        synchronized (users) {
+            users.remove(username);
+        }
+    }
 }
\ No newline at end of file
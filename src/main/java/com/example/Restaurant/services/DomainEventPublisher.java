@@ -0,0 +1,122 @@
+package com.example.Restaurant.services;
+
+import org.slf4j.Logger; // Import the Logger interface.
+import org.slf4j.LoggerFactory; // Import the LoggerFactory class.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.beans.factory.annotation.Qualifier; // Import the Qualifier annotation.
+import org.springframework.core.task.TaskExecutor; // Import the TaskExecutor interface.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.transaction.support.TransactionSynchronization; // Import the TransactionSynchronization interface.
+import org.springframework.transaction.support.TransactionSynchronizationManager; // Import the TransactionSynchronizationManager class.
+
+import java.util.ArrayList; // Import the ArrayList class.
+import java.util.List; // Import the List interface.
+
+/**
+ * Service class publishing domain events once the transaction that produced them has ended.
+ *
+ * Main purpose of this service:
+ * - To keep WebSocket broadcasts out of transactions and off the request thread: clients never
+ *   see changes that are later rolled back, and a request does not wait for events to be
+ *   serialized and handed to the broker.
+ *
+ * Business features it provides:
+ * - Collecting the events of the current transaction in order.
+ * - Publishing them after commit (publish) or after commit and rollback alike, for events that
+ *   describe a failure (publishAfterCompletion).
+ * - Running the publishing of each transaction's events as one task on the "eventExecutor",
+ *   a single thread, so events leave in the order their transactions completed.
+ *
+ * Dependencies and component interactions:
+ * - eventExecutor (AsyncConfig): Runs the publishing tasks.
+ * - OrderEventService, OrderService and StockBroadcastService: Hand their broadcasts to this service.
+ *
+ * Transaction handling:
+ * - Outside of a transaction events are handed to the executor immediately.
+ * - Events of a rolled back transaction are dropped, except those published with publishAfterCompletion.
+ *
+ * Security/validation considerations:
+ * - Events run without the request's security context; callers capture what they need (such as the
+ *   user name) before publishing.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class DomainEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventPublisher.class);
+
+    @Autowired // Injects the event executor into this service.
+    @Qualifier("eventExecutor")
+    private TaskExecutor eventExecutor;
+
+    /**
+     * The events collected during one transaction.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+        private final List<Runnable> events = new ArrayList<>(); // All events, in publishing order.
+        private final List<Runnable> failureEvents = new ArrayList<>(); // The events also sent after a rollback.
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DomainEventPublisher.this);
+            List<Runnable> toSend = status == STATUS_COMMITTED ? events : failureEvents;
+            if (!toSend.isEmpty()) {
+                submit(toSend);
+            }
+        }
+    }
+
+    /**
+     * Publishes an event after the current transaction commits, or now if there is none.
+     *
+     * @param event sends the event; runs on the event executor
+     */
+    public void publish(Runnable event) {
+        PendingEvents pending = pendingEvents();
+        if (pending == null) {
+            submit(List.of(event));
+            return;
+        }
+        pending.events.add(event);
+    }
+
+    /**
+     * Publishes an event once the current transaction has ended, whether it commits or rolls back.
+     * Meant for events reporting why a transaction failed.
+     *
+     * @param event sends the event; runs on the event executor
+     */
+    public void publishAfterCompletion(Runnable event) {
+        PendingEvents pending = pendingEvents();
+        if (pending == null) {
+            submit(List.of(event));
+            return;
+        }
+        pending.events.add(event);
+        pending.failureEvents.add(event);
+    }
+
+    private PendingEvents pendingEvents() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) { // First event of this transaction.
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void submit(List<Runnable> events) {
+        eventExecutor.execute(() -> {
+            for (Runnable event : events) {
+                try {
+                    event.run();
+                } catch (RuntimeException e) {
+                    log.warn("Could not publish event", e); // One failing event must not drop the others.
+                }
+            }
+        });
+    }
+}
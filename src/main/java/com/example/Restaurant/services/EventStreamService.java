@@ -0,0 +1,146 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.EventReplay; // Import the EventReplay record.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
+import org.springframework.messaging.simp.SimpMessagingTemplate; // Import the SimpMessagingTemplate class.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+
+import java.util.ArrayList; // Import the ArrayList class.
+import java.util.List; // Import the List interface.
+import java.util.Map; // Import the Map interface.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+import java.util.function.Supplier; // Import the Supplier interface.
+
+/**
+ * Service class publishing sequenced, resumable event streams over WebSocket.
+ *
+ * Main purpose of this service:
+ * - To let a tablet that lost its connection catch up with only the events it missed,
+ *   instead of reloading the whole order list on every reconnect.
+ *
+ * Business features it provides:
+ * - Numbering the events of each destination 1, 2, 3, ... and sending the number and the
+ *   epoch (the run of the application) as the "seq" and "epoch" STOMP headers.
+ * - Keeping the last restaurant.events.replay-buffer-size events of each destination in a ring buffer.
+ * - Replaying the events after a given sequence number, or falling back to a snapshot when
+ *   they are no longer buffered or the application was restarted.
+ *
+ * Dependencies and component interactions:
+ * - SimpMessagingTemplate: Used to send the events.
+ * - OrderEventService and StockBroadcastService: Publish their events through this service.
+ * - OrderController and IngredientController: Answer the resume subscriptions with replay().
+ *
+ * Transaction handling:
+ * - This service does not access the database; snapshot suppliers run outside of its locks.
+ *
+ * Security/validation considerations:
+ * - Streams are per destination, so a replay never contains events of another role's topic.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class EventStreamService {
+
+    /**
+     * The STOMP header carrying the sequence number of an event.
+     */
+    public static final String SEQ_HEADER = "seq";
+
+    /**
+     * The STOMP header carrying the epoch of an event.
+     */
+    public static final String EPOCH_HEADER = "epoch";
+
+    @Autowired // Injects the SimpMessagingTemplate dependency into this service.
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${restaurant.events.replay-buffer-size:1000}") // Events kept per destination for resuming clients.
+    private int replayBufferSize;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36); // Sequences restart with the application.
+    private final Map<String, EventStream> streams = new ConcurrentHashMap<>(); // Stream per destination.
+
+    /**
+     * The sequence and recent events of one destination.
+     */
+    private static final class EventStream {
+        private final Object[] ring;
+        private long lastSeq;
+
+        private EventStream(int capacity) {
+            this.ring = new Object[capacity];
+        }
+
+        private long oldestBufferedSeq() {
+            return Math.max(1, lastSeq - ring.length + 1);
+        }
+    }
+
+    /**
+     * Gets the epoch of this run of the application.
+     *
+     * @return the epoch
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Assigns the next sequence number of a destination to an event, buffers it and sends it.
+     *
+     * Business operation it performs:
+     * - Numbers and sends the event under the stream's lock, so events reach the broker in sequence order.
+     *
+     * @param destination the destination to send to
+     * @param event the event to send
+     * @return the sequence number of the event
+     */
+    public long publish(String destination, Object event) {
+        EventStream stream = stream(destination);
+        synchronized (stream) {
+            long seq = ++stream.lastSeq;
+            stream.ring[(int) (seq % stream.ring.length)] = event;
+            messagingTemplate.convertAndSend(destination, event,
+                    Map.of(SEQ_HEADER, Long.toString(seq), EPOCH_HEADER, epoch));
+            return seq;
+        }
+    }
+
+    /**
+     * Gets what a client needs to catch up with a destination.
+     *
+     * Business operation it performs:
+     * - Returns the buffered events after the client's sequence number when the client belongs
+     *   to this epoch and none of the missed events has been overwritten yet.
+     * - Otherwise returns the snapshot together with the sequence number it is current with.
+     *
+     * Step by step logic:
+     * 1. Under the stream's lock, check the epoch and the buffered range and copy the missed events.
+     * 2. For a snapshot, note the current sequence number first and build the snapshot afterwards,
+     *    so events published meanwhile are newer than the snapshot's sequence and still applied.
+     *
+     * @param destination the destination of the stream
+     * @param clientEpoch the epoch of the client's last event, or any other value for a first load
+     * @param since the sequence number of the client's last applied event
+     * @param snapshot supplies the full current state
+     * @return the replay
+     */
+    public EventReplay replay(String destination, String clientEpoch, long since, Supplier<?> snapshot) {
+        EventStream stream = stream(destination);
+        long seq;
+        synchronized (stream) {
+            seq = stream.lastSeq;
+            if (epoch.equals(clientEpoch) && since <= seq && since + 1 >= stream.oldestBufferedSeq()) {
+                List<EventReplay.Entry> missed = new ArrayList<>((int) (seq - since));
+                for (long next = since + 1; next <= seq; next++) {
+                    missed.add(new EventReplay.Entry(next, stream.ring[(int) (next % stream.ring.length)]));
+                }
+                return new EventReplay(epoch, seq, missed, null);
+            }
+        }
+        return new EventReplay(epoch, seq, null, snapshot.get()); // Too far behind, or a first load.
+    }
+
+    private EventStream stream(String destination) {
+        return streams.computeIfAbsent(destination, key -> new EventStream(replayBufferSize));
+    }
+}
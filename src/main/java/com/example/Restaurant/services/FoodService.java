@@ -8,9 +8,6 @@ package com.example.Restaurant.services;
           import org.springframework.web.multipart.MultipartFile; // Import the MultipartFile class.
 
           import java.io.IOException; // Import the IOException class.
-          import java.nio.file.Files; // Import the Files class.
-          import java.nio.file.Path; // Import the Path class.
-          import java.nio.file.Paths; // Import the Paths class.
           import java.util.List; // Import the List interface.
           import java.util.Optional; // Import the Optional class.
 
@@ -30,6 +27,8 @@ package com.example.Restaurant.services;
            *
            * Dependencies and component interactions:
            * - FoodRepository: Used to perform CRUD operations on food entities.
+           * - MenuCacheService: Serves category and ID lookups from memory and is invalidated on every change.
+           * - ImageService: Stores uploaded images and their resized variants, and deletes images no food uses.
            *
            * Transaction handling:
            * - Methods that modify data (saveFood, updateFood, deleteFood) are annotated with @Transactional to ensure data consistency.
@@ -44,6 +43,12 @@ package com.example.Restaurant.services;
               @Autowired // Injects the FoodRepository dependency into this service.
               private FoodRepository foodRepository;
 
+              @Autowired // Injects the MenuCacheService dependency into this service.
+              private MenuCacheService menuCacheService;
+
+              @Autowired // Injects the ImageService dependency into this service.
+              private ImageService imageService;
+
               /**
                * Fetches all foods.
                *
@@ -81,7 +86,7 @@ package com.example.Restaurant.services;
                * - Retrieves food entities from the database based on the specified category.
                *
                * Step by step logic:
-               * 1. Call the findByCategory method of FoodRepository with the given category.
+               * 1. Call the getFoodsByCategory method of MenuCacheService, which loads the category on a miss.
                *
                * Transaction behavior:
                * - This method performs a read operation and does not modify any data.
@@ -93,7 +98,7 @@ package com.example.Restaurant.services;
                * - No specific error handling.
                *
                * Interactions with repositories/other services:
-               * - Interacts with FoodRepository to fetch food data by category.
+               * - Interacts with MenuCacheService to fetch food data by category.
                *
                * Security checks:
                * - No specific security checks.
@@ -102,7 +107,7 @@ package com.example.Restaurant.services;
                * @return a list of food entities in the specified category
                */
               public List<Food> getFoodsByCategory(String category) {
-                  return foodRepository.findByCategory(category); // Fetch foods by category from the database.
+                  return menuCacheService.getFoodsByCategory(category); // Fetch foods by category from the menu cache.
               }
 
               /**
@@ -112,7 +117,7 @@ package com.example.Restaurant.services;
                * - Retrieves a food entity from the database based on the specified ID.
                *
                * Step by step logic:
-               * 1. Call the findById method of FoodRepository with the given ID.
+               * 1. Call the getFood method of MenuCacheService, which loads the food on a miss.
                *
                * Transaction behavior:
                * - This method performs a read operation and does not modify any data.
@@ -124,7 +129,7 @@ package com.example.Restaurant.services;
                * - Returns an Optional.empty() if the food is not found.
                *
                * Interactions with repositories/other services:
-               * - Interacts with FoodRepository to fetch food data by ID.
+               * - Interacts with MenuCacheService to fetch food data by ID.
                *
                * Security checks:
                * - No specific security checks.
@@ -133,7 +138,7 @@ package com.example.Restaurant.services;
                * @return an Optional containing the food entity if found, or an empty Optional if not found
                */
               public Optional<Food> getFoodById(Long id) {
-                  return foodRepository.findById(id); // Fetch the food by ID from the database.
+                  return menuCacheService.getFood(id); // Fetch the food by ID from the menu cache.
               }
 
               /**
@@ -144,11 +149,10 @@ package com.example.Restaurant.services;
                *
                * Step by step logic:
                * 1. Check if the image file is not null and not empty.
-               * 2. Generate a unique file name for the image.
-               * 3. Create the upload directory if it does not exist.
-               * 4. Save the image file to the upload directory.
-               * 5. Set the image file name in the food entity.
-               * 6. Save the food entity to the database using FoodRepository.
+               * 2. Store the image through ImageService, which names it after its content hash and
+               *    generates the resized variants in the background.
+               * 3. Set the stored file name in the food entity.
+               * 4. Save the food entity to the database using FoodRepository.
                *
                * Transaction behavior:
                * - This method is transactional to ensure data consistency.
@@ -160,6 +164,7 @@ package com.example.Restaurant.services;
                * - Throws a RuntimeException if the image file cannot be stored.
                *
                * Interactions with repositories/other services:
+               * - Interacts with ImageService to store the image.
                * - Interacts with FoodRepository to save the food entity.
                *
                * Security checks:
@@ -173,23 +178,15 @@ package com.example.Restaurant.services;
               public Food saveFood(Food food, MultipartFile imageFile) {
                   if (imageFile != null && !imageFile.isEmpty()) { // Check if the image file is not null and not empty.
                       try {
-                          String fileName = System.currentTimeMillis() + "_" + imageFile.getOriginalFilename(); // Generate a unique file name for the image.
-                          String uploadDir = "src/main/resources/static/uploads/"; // Define the upload directory.
-
-                          // Create the directory if it does not exist.
-                          Files.createDirectories(Paths.get(uploadDir));
-
-                          // Save the file.
-                          Path path = Paths.get(uploadDir + fileName);
-                          Files.copy(imageFile.getInputStream(), path);
-
-                          // Set the file name in the food entity.
-                          food.setImage(fileName);
+                          // Store the file and set its content-hashed name in the food entity.
+                          food.setImage(imageService.store(imageFile));
                       } catch (IOException e) {
                           throw new RuntimeException("Could not store the image file", e); // Throw a RuntimeException if the image file cannot be stored.
                       }
                   }
-                  return foodRepository.save(food); // Save the food entity to the database.
+                  Food savedFood = foodRepository.save(food); // Save the food entity to the database.
+                  menuCacheService.invalidate(savedFood.getId()); // Drop the stale menu entries.
+                  return savedFood;
               }
 
               /**
@@ -221,7 +218,9 @@ package com.example.Restaurant.services;
                */
               @Transactional
               public Food updateFood(Food food) {
-                  return foodRepository.save(food); // Save the updated food entity to the database.
+                  Food savedFood = foodRepository.save(food); // Save the updated food entity to the database.
+                  menuCacheService.invalidate(savedFood.getId()); // Drop the stale menu entries.
+                  return savedFood;
               }
 
               /**
@@ -233,8 +232,8 @@ package com.example.Restaurant.services;
                * Step by step logic:
                * 1. Fetch the food entity by ID using FoodRepository.
                * 2. If the food is not found, throw an IllegalArgumentException.
-               * 3. If the food has an associated image, delete the image file.
-               * 4. Delete the food entity from the database using FoodRepository.
+               * 3. Delete the food entity from the database using FoodRepository.
+               * 4. If no other food uses its image, delete the image file and its variants.
                *
                * Transaction behavior:
                * - This method is transactional to ensure data consistency.
@@ -244,10 +243,11 @@ package com.example.Restaurant.services;
                *
                * Error handling:
                * - Throws an IllegalArgumentException if the food ID is invalid.
-               * - Logs an error if the image file cannot be deleted.
+               * - Logs a warning if the image file cannot be deleted.
                *
                * Interactions with repositories/other services:
                * - Interacts with FoodRepository to delete the food entity.
+               * - Interacts with ImageService to delete the unused image.
                *
                * Security checks:
                * - No specific security checks.
@@ -259,18 +259,9 @@ package com.example.Restaurant.services;
                   Food food = foodRepository.findById(id) // Fetch the food entity by ID.
                           .orElseThrow(() -> new IllegalArgumentException("Invalid food id: " + id)); // Throw an IllegalArgumentException if the food is not found.
 
-                  // Delete the previous image if it exists.
-                  if (food.getImage() != null) {
-                      try {
-                          Path imagePath = Paths.get("src/main/resources/static/uploads/" + food.getImage()); // Define the image path.
-                          Files.deleteIfExists(imagePath); // Delete the image file if it exists.
-                      } catch (IOException e) {
-                          // Log the error.
-                          e.printStackTrace();
-                      }
-                  }
-
                   foodRepository.deleteById(id); // Delete the food entity from the database.
+                  imageService.deleteIfUnused(food.getImage()); // Delete the image unless another food shares it.
+                  menuCacheService.invalidate(id); // Drop the stale menu entries.
               }
 
               // Uncomment and implement if needed
@@ -0,0 +1,428 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.repository.FoodRepository; // Import the FoodRepository interface.
+import jakarta.annotation.PostConstruct; // Import the PostConstruct annotation.
+import org.slf4j.Logger; // Import the Logger interface.
+import org.slf4j.LoggerFactory; // Import the LoggerFactory class.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.beans.factory.annotation.Qualifier; // Import the Qualifier annotation.
+import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
+import org.springframework.boot.context.event.ApplicationReadyEvent; // Import the ApplicationReadyEvent class.
+import org.springframework.context.event.EventListener; // Import the EventListener annotation.
+import org.springframework.core.task.TaskExecutor; // Import the TaskExecutor interface.
+import org.springframework.core.task.TaskRejectedException; // Import the TaskRejectedException class.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.util.StringUtils; // Import the StringUtils class.
+import org.springframework.web.multipart.MultipartFile; // Import the MultipartFile class.
+import org.springframework.web.util.UriUtils; // Import the UriUtils class.
+
+import javax.imageio.IIOImage; // Import the IIOImage class.
+import javax.imageio.ImageIO; // Import the ImageIO class.
+import javax.imageio.ImageWriteParam; // Import the ImageWriteParam class.
+import javax.imageio.ImageWriter; // Import the ImageWriter class.
+import javax.imageio.stream.ImageOutputStream; // Import the ImageOutputStream interface.
+import java.awt.Color; // Import the Color class.
+import java.awt.Graphics2D; // Import the Graphics2D class.
+import java.awt.RenderingHints; // Import the RenderingHints class.
+import java.awt.image.BufferedImage; // Import the BufferedImage class.
+import java.io.IOException; // Import the IOException class.
+import java.io.InputStream; // Import the InputStream class.
+import java.io.OutputStream; // Import the OutputStream class.
+import java.nio.charset.StandardCharsets; // Import the StandardCharsets class.
+import java.nio.file.DirectoryStream; // Import the DirectoryStream interface.
+import java.nio.file.Files; // Import the Files class.
+import java.nio.file.Path; // Import the Path interface.
+import java.nio.file.StandardCopyOption; // Import the StandardCopyOption enum.
+import java.security.MessageDigest; // Import the MessageDigest class.
+import java.security.NoSuchAlgorithmException; // Import the NoSuchAlgorithmException class.
+import java.util.Arrays; // Import the Arrays class.
+import java.util.HexFormat; // Import the HexFormat class.
+import java.util.Locale; // Import the Locale class.
+import java.util.Set; // Import the Set interface.
+import java.util.StringJoiner; // Import the StringJoiner class.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+
+/**
+ * Service class storing uploaded food images and producing their resized variants.
+ *
+ * Main purpose of this service:
+ * - To keep menu pages light: instead of sending every guest the full-size upload, pages
+ *   request a thumbnail or a compressed JPEG no wider than they display.
+ *
+ * Business features it provides:
+ * - Storing an uploaded image under a content-hashed name, so identical uploads share one file
+ *   (also across dishes) and a name never points at different content. The upload is streamed
+ *   to a temporary file and hashed on the way, never held in memory.
+ * - Generating one JPEG variant per configured width (restaurant.images.variant-widths) on the
+ *   image executor, after the upload request has returned.
+ * - Backfilling missing variants for images already in the upload directory at startup.
+ * - Choosing the variant for a display width, falling back to the original until it exists,
+ *   and building the srcset of an image for the browser to choose from.
+ * - Deleting an image and its variants once no food uses it any more.
+ *
+ * Dependencies and component interactions:
+ * - imageExecutor (AsyncConfig): Runs the variant generation tasks.
+ * - MenuCacheService: Invalidated when variants become available, so cached menu pages and
+ *   their ETags pick up the new sizes.
+ * - UploadStoreService: Provides the upload directory and drops deleted files from memory.
+ * - FoodRepository: Checks whether an image is still used before deleting it.
+ * - FoodService and FoodController: Store uploads through this service.
+ * - Templates: Call variant and srcset as @imageService.
+ *
+ * Transaction handling:
+ * - Files are not transactional; originals are written to a temporary file and moved into
+ *   place, so readers never see a partial image.
+ *
+ * Security/validation considerations:
+ * - Stored names are derived from the content hash and the format detected from the file's
+ *   magic bytes, never from the client's file name or content type.
+ * - Uploads larger than restaurant.images.max-upload-bytes are rejected while streaming.
+ * - Variants are never wider than the original.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class ImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageService.class);
+
+    private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp"); // Formats ImageIO can read.
+
+    @Autowired // Injects the image executor into this service.
+    @Qualifier("imageExecutor")
+    private TaskExecutor imageExecutor;
+
+    @Autowired // Injects the MenuCacheService dependency into this service.
+    private MenuCacheService menuCacheService;
+
+    @Autowired // Injects the FoodRepository dependency into this service.
+    private FoodRepository foodRepository;
+
+    @Autowired // Injects the UploadStoreService dependency into this service.
+    private UploadStoreService uploadStoreService;
+
+    private Path uploadDir; // The directory of the upload store.
+
+    @Value("${restaurant.images.variant-widths:320,800}") // Injects the widths of the generated variants.
+    private int[] variantWidths;
+
+    @Value("${restaurant.images.jpeg-quality:0.8}") // Injects the JPEG quality of the generated variants.
+    private float jpegQuality;
+
+    @Value("${restaurant.images.max-upload-bytes:10485760}") // Injects the size limit of an uploaded image.
+    private long maxUploadBytes;
+
+    private final Set<String> readyVariants = ConcurrentHashMap.newKeySet(); // Names of the variants that exist on disk.
+
+    /**
+     * Looks up the upload directory and sorts the configured widths, so the smallest
+     * suitable variant is found first.
+     */
+    @PostConstruct
+    void init() {
+        uploadDir = uploadStoreService.getDirectory();
+        Arrays.sort(variantWidths);
+    }
+
+    /**
+     * Stores an uploaded image and schedules its variants.
+     *
+     * @param file the uploaded image
+     * @return the stored file name, to be saved as the food's image
+     * @throws IOException if the file cannot be read or written
+     * @throws IllegalArgumentException if the file is not a supported image or is too large
+     */
+    public String store(MultipartFile file) throws IOException {
+        if (file.getSize() > maxUploadBytes) { // Known up front for multipart uploads.
+            throw new IllegalArgumentException("Image is larger than " + maxUploadBytes + " bytes");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return store(in);
+        }
+    }
+
+    /**
+     * Stores an image read from a stream and schedules its variants.
+     *
+     * Step by step logic:
+     * 1. Read the first bytes and detect the image format from its magic bytes; the client's
+     *    file name and content type are not trusted.
+     * 2. Stream the content to a temporary file in the store, hashing it on the way and
+     *    aborting as soon as it exceeds restaurant.images.max-upload-bytes.
+     * 3. Name the file after the hash and the detected format. If an identical image is already
+     *    stored (for example the same picture used for another dish), drop the temporary file;
+     *    otherwise move it into place.
+     * 4. Schedule the variant generation on the image executor.
+     *
+     * @param in the image content; not closed by this method
+     * @return the stored file name, to be saved as the food's image
+     * @throws IOException if the stream cannot be read or the file cannot be written
+     * @throws IllegalArgumentException if the content is not a supported image or is too large
+     */
+    public String store(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        int headerLength = in.readNBytes(buffer, 0, 12);
+        String extension = detectFormat(buffer, headerLength);
+        if (extension == null) {
+            throw new IllegalArgumentException("Unsupported image type, expected JPEG, PNG, GIF or BMP");
+        }
+
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(uploadDir, ".upload-", ".tmp");
+        try {
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read = headerLength;
+                while (read > 0) {
+                    size += read;
+                    if (size > maxUploadBytes) {
+                        throw new IllegalArgumentException("Image is larger than " + maxUploadBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    read = in.read(buffer);
+                }
+            }
+            String fileName = HexFormat.of().formatHex(digest.digest()).substring(0, 32) + "." + extension;
+            Path target = uploadDir.resolve(fileName);
+            if (Files.exists(target)) {
+                log.debug("Image {} is already stored, reusing it", fileName); // Identical content is stored once.
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            scheduleVariants(fileName);
+            return fileName;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Gets the size limit of an uploaded image.
+     *
+     * @return the maximum number of bytes
+     */
+    public long getMaxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    /**
+     * Gets the name of the variant to show at the given width.
+     * Picks the smallest variant at least that wide, or the original when no such variant exists yet.
+     *
+     * @param image the stored name of the original image
+     * @param width the display width in CSS pixels
+     * @return the name of the variant or of the original
+     */
+    public String variant(String image, int width) {
+        if (image == null) {
+            return null;
+        }
+        for (int variantWidth : variantWidths) {
+            if (variantWidth >= width && readyVariants.contains(variantName(image, variantWidth))) {
+                return variantName(image, variantWidth);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Builds the srcset attribute listing every ready variant of an image.
+     *
+     * @param image the stored name of the original image
+     * @return the srcset value, or null if the image has no variants yet
+     */
+    public String srcset(String image) {
+        if (image == null) {
+            return null;
+        }
+        StringJoiner srcset = new StringJoiner(", ");
+        for (int width : variantWidths) {
+            String name = variantName(image, width);
+            if (readyVariants.contains(name)) {
+                srcset.add("/uploads/" + UriUtils.encodePath(name, StandardCharsets.UTF_8) + " " + width + "w");
+            }
+        }
+        return srcset.length() == 0 ? null : srcset.toString();
+    }
+
+    /**
+     * Deletes an image and its variants if no food uses the image any more.
+     * Hashed names are shared by dishes with the same picture, so the file can still be in use.
+     *
+     * @param image the stored name of the original image
+     */
+    public void deleteIfUnused(String image) {
+        if (image == null || foodRepository.existsByImage(image)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(uploadDir.resolve(image));
+            uploadStoreService.evict(image);
+            for (int width : variantWidths) {
+                String name = variantName(image, width);
+                readyVariants.remove(name);
+                Files.deleteIfExists(uploadDir.resolve(name));
+                uploadStoreService.evict(name);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete image {}", image, e);
+        }
+    }
+
+    /**
+     * Generates the variants missing for the images already in the upload directory.
+     * Runs once the application has started, on the image executor.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVariants() {
+        if (!Files.isDirectory(uploadDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (Files.isRegularFile(file) && isOriginal(name)) {
+                    scheduleVariants(name);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan {} for images without variants", uploadDir, e);
+        }
+    }
+
+    private void scheduleVariants(String image) {
+        try {
+            imageExecutor.execute(() -> generateVariants(image));
+        } catch (TaskRejectedException e) {
+            log.warn("Image queue is full, {} is served without variants until the next restart", image);
+        }
+    }
+
+    private void generateVariants(String image) {
+        try {
+            BufferedImage original = null;
+            boolean created = false;
+            for (int width : variantWidths) {
+                String name = variantName(image, width);
+                Path target = uploadDir.resolve(name);
+                if (!Files.exists(target)) {
+                    if (original == null) {
+                        original = ImageIO.read(uploadDir.resolve(image).toFile());
+                        if (original == null) {
+                            log.warn("Cannot decode image {}, no variants generated", image);
+                            return;
+                        }
+                    }
+                    writeJpeg(scale(original, width), target);
+                    created = true;
+                }
+                readyVariants.add(name);
+            }
+            if (created) {
+                menuCacheService.invalidate(null); // New sizes change the rendered menu.
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants of {}", image, e);
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth()); // Never upscale.
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        // Halve in steps first: a single bilinear pass over a large reduction drops most pixels.
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        return draw(current, width, height);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE); // JPEG has no alpha; transparent areas become white.
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(uploadDir, ".variant-", ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private boolean isOriginal(String name) {
+        if (name.startsWith(".")) {
+            return false; // Temporary files.
+        }
+        String extension = StringUtils.getFilenameExtension(name);
+        if (extension == null || !EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        for (int width : variantWidths) {
+            if (name.endsWith("-" + width + ".jpg")) {
+                return false; // A generated variant.
+            }
+        }
+        return true;
+    }
+
+    private static String variantName(String image, int width) {
+        String base = StringUtils.stripFilenameExtension(image);
+        return base + "-" + width + ".jpg";
+    }
+
+    private static String detectFormat(byte[] header, int length) {
+        if (startsWith(header, length, 0xFF, 0xD8, 0xFF)) {
+            return "jpg";
+        }
+        if (startsWith(header, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "png";
+        }
+        if (startsWith(header, length, 'G', 'I', 'F', '8')) {
+            return "gif";
+        }
+        if (startsWith(header, length, 'B', 'M')) {
+            return "bmp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
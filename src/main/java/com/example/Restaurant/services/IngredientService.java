@@ -1,11 +1,14 @@
 package com.example.Restaurant.services;
 
 import com.example.Restaurant.model.Ingredient; // Import the Ingredient model class.
+import com.example.Restaurant.model.StockSummary; // Import the StockSummary model class.
 import com.example.Restaurant.repository.IngredientRepository; // Import the IngredientRepository interface.
 import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
 import org.springframework.stereotype.Service; // Import the Service annotation.
 import org.springframework.transaction.annotation.Transactional; // Import the Transactional annotation.
 
+import java.util.Collection; // Import the Collection interface.
+import java.util.Comparator; // Import the Comparator interface.
 import java.util.List; // Import the List interface.
 import java.util.Optional; // Import the Optional class.
 import java.util.stream.Collectors; // Import the Collectors class.
@@ -21,13 +24,14 @@ import java.util.stream.Collectors; // Import the Collectors class.
  * - Fetching a specific ingredient by ID.
  * - Saving a new ingredient.
  * - Deleting an ingredient by ID.
- * - Fetching ingredients with low stock.
- * - Counting out-of-stock ingredients.
- * - Counting well-stocked ingredients.
+ * - Fetching the ingredients with given IDs.
+ * - Summarizing stock counts and low-stock ingredients in a single pass over the ledger.
  * - Updating the stock of an ingredient.
  *
  * Dependencies and component interactions:
  * - IngredientRepository: Used to perform CRUD operations on ingredient entities.
+ * - StockLedgerService: Kept in sync with every absolute stock change made here, and the
+ *   source of the stock shown, since deductions reach the database only when flushed.
  *
  * Transaction handling:
  * - Methods that modify data (saveIngredient, deleteIngredient, updateStock) are annotated with @Transactional to ensure data consistency.
@@ -42,14 +46,19 @@ public class IngredientService {
     @Autowired // Injects the IngredientRepository dependency into this service.
     private IngredientRepository ingredientRepository;
 
+    @Autowired // Injects the StockLedgerService dependency into this service.
+    private StockLedgerService stockLedgerService;
+
     /**
      * Fetches all ingredients.
      *
      * Business operation it performs:
-     * - Retrieves all ingredient entities from the database.
+     * - Retrieves all ingredient entities from the database, with the committed stock of the ledger.
      *
      * Step by step logic:
      * 1. Call the findAll method of IngredientRepository to get all ingredients.
+     * 2. Replace the stock of each one with the committed ledger stock, since the database
+     *    lags behind by the deductions not flushed yet.
      *
      * Transaction behavior:
      * - This method performs a read operation and does not modify any data.
@@ -62,6 +71,7 @@ public class IngredientService {
      *
      * Interactions with repositories/other services:
      * - Interacts with IngredientRepository to fetch all ingredient data.
+     * - Interacts with StockLedgerService for the current stock.
      *
      * Security checks:
      * - No specific security checks.
@@ -69,17 +79,21 @@ public class IngredientService {
      * @return a list of all ingredient entities
      */
     public List<Ingredient> getAllIngredients() {
-        return ingredientRepository.findAll(); // Fetch all ingredients from the database.
+        return ingredientRepository.findAll().stream() // Fetch all ingredients from the database.
+                .map(this::withLedgerStock) // Show the stock of the ledger.
+                .collect(Collectors.toList());
     }
 
     /**
      * Fetches a specific ingredient by ID.
      *
      * Business operation it performs:
-     * - Retrieves an ingredient entity from the database based on the specified ID.
+     * - Retrieves an ingredient entity from the database based on the specified ID,
+     *   with the committed stock of the ledger.
      *
      * Step by step logic:
      * 1. Call the findById method of IngredientRepository with the given ID.
+     * 2. Replace its stock with the committed ledger stock.
      *
      * Transaction behavior:
      * - This method performs a read operation and does not modify any data.
@@ -92,6 +106,7 @@ public class IngredientService {
      *
      * Interactions with repositories/other services:
      * - Interacts with IngredientRepository to fetch ingredient data by ID.
+     * - Interacts with StockLedgerService for the current stock.
      *
      * Security checks:
      * - No specific security checks.
@@ -100,7 +115,8 @@ public class IngredientService {
      * @return an Optional containing the ingredient entity if found, or an empty Optional if not found
      */
     public Optional<Ingredient> getIngredientById(Long id) {
-        return ingredientRepository.findById(id); // Fetch the ingredient by ID from the database.
+        return ingredientRepository.findById(id) // Fetch the ingredient by ID from the database.
+                .map(this::withLedgerStock); // Show the stock of the ledger.
     }
 
     /**
@@ -112,6 +128,7 @@ public class IngredientService {
      * Step by step logic:
      * 1. Validate the ingredient's current stock and threshold.
      * 2. Save the ingredient entity to the database using IngredientRepository.
+     * 3. Record the saved stock in the stock ledger.
      *
      * Transaction behavior:
      * - This method is transactional to ensure data consistency.
@@ -140,7 +157,9 @@ public class IngredientService {
         if (ingredient.getThreshold() == null) { // Check if the threshold is null.
             ingredient.setThreshold(0.0); // Set the threshold to 0.0 if it is null.
         }
-        return ingredientRepository.save(ingredient); // Save the ingredient entity to the database.
+        Ingredient savedIngredient = ingredientRepository.save(ingredient); // Save the ingredient entity to the database.
+        stockLedgerService.track(savedIngredient); // Keep the in-memory stock ledger in sync.
+        return savedIngredient;
     }
 
     /**
@@ -153,6 +172,7 @@ public class IngredientService {
      * 1. Fetch the ingredient entity by ID using IngredientRepository.
      * 2. If the ingredient is not found, throw a RuntimeException.
      * 3. Delete the ingredient entity from the database using IngredientRepository.
+     * 4. Remove the ingredient from the stock ledger.
      *
      * Transaction behavior:
      * - This method is transactional to ensure data consistency.
@@ -176,54 +196,22 @@ public class IngredientService {
         Optional<Ingredient> ingredient = ingredientRepository.findById(id); // Fetch the ingredient entity by ID.
         if (ingredient.isPresent()) { // Check if the ingredient is present.
             ingredientRepository.delete(ingredient.get()); // Delete the ingredient entity from the database.
+            stockLedgerService.remove(id); // Stop tracking the deleted ingredient.
         } else {
             throw new RuntimeException("Ingredient not found"); // Throw a RuntimeException if the ingredient is not found.
         }
     }
 
     /**
-     * Fetches ingredients with low stock.
-     *
-     * Business operation it performs:
-     * - Retrieves ingredient entities from the database that have low stock.
-     *
-     * Step by step logic:
-     * 1. Call the getAllIngredients method to get all ingredients.
-     * 2. Filter the ingredients based on their current stock and threshold.
-     *
-     * Transaction behavior:
-     * - This method performs a read operation and does not modify any data.
-     *
-     * Validation rules:
-     * - No specific validation rules.
-     *
-     * Error handling:
-     * - No specific error handling.
-     *
-     * Interactions with repositories/other services:
-     * - Interacts with IngredientRepository to fetch all ingredient data.
-     *
-     * Security checks:
-     * - No specific security checks.
-     *
-     * @return a list of ingredients with low stock
-     */
-    public List<Ingredient> getLowStockIngredients() {
-        return getAllIngredients().stream() // Fetch all ingredients and convert to a stream.
-                .filter(i -> i.getCurrentStock() <= i.getThreshold()) // Filter ingredients with low stock.
-                .collect(Collectors.toList()); // Collect the filtered ingredients into a list.
-    }
-
-    /**
-     * Counts out-of-stock ingredients.
+     * Fetches the ingredients with the given IDs.
      *
      * Business operation it performs:
-     * - Counts the number of ingredient entities in the database that are out of stock.
+     * - Retrieves the listed ingredient entities from the database, with the committed stock of the ledger.
      *
      * Step by step logic:
-     * 1. Call the getAllIngredients method to get all ingredients.
-     * 2. Filter the ingredients based on their current stock.
-     * 3. Count the filtered ingredients.
+     * 1. Call the findAllById method of IngredientRepository with the given IDs.
+     * 2. Replace the stock of each one with the committed ledger stock.
+     * 3. Sort them by ID.
      *
      * Transaction behavior:
      * - This method performs a read operation and does not modify any data.
@@ -232,35 +220,41 @@ public class IngredientService {
      * - No specific validation rules.
      *
      * Error handling:
-     * - No specific error handling.
+     * - IDs of ingredients that no longer exist are skipped.
      *
      * Interactions with repositories/other services:
-     * - Interacts with IngredientRepository to fetch all ingredient data.
+     * - Interacts with IngredientRepository to fetch the listed ingredients only.
+     * - Interacts with StockLedgerService for the current stock.
      *
      * Security checks:
      * - No specific security checks.
      *
-     * @return the count of out-of-stock ingredients
+     * @param ids the IDs of the ingredients to fetch
+     * @return the ingredients found, ordered by ID
      */
-    public long getOutOfStockCount() {
-        return getAllIngredients().stream() // Fetch all ingredients and convert to a stream.
-                .filter(i -> i.getCurrentStock() <= 0) // Filter out-of-stock ingredients.
-                .count(); // Count the filtered ingredients.
+    public List<Ingredient> getIngredientsById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of(); // Nothing to query.
+        }
+        return ingredientRepository.findAllById(ids).stream() // Fetch only the listed ingredients.
+                .map(this::withLedgerStock) // Show the stock of the ledger.
+                .sorted(Comparator.comparing(Ingredient::getId))
+                .collect(Collectors.toList());
     }
 
     /**
-     * Counts well-stocked ingredients.
+     * Summarizes the stock of all ingredients.
      *
      * Business operation it performs:
-     * - Counts the number of ingredient entities in the database that are well-stocked.
+     * - Computes the per-status counts and the low-stock ingredient IDs from the committed
+     *   ledger stock, without loading any ingredient from the database.
      *
      * Step by step logic:
-     * 1. Call the getAllIngredients method to get all ingredients.
-     * 2. Filter the ingredients based on their current stock and threshold.
-     * 3. Count the filtered ingredients.
+     * 1. Take the committed stock and the thresholds of all ingredients from the ledger.
+     * 2. Summarize them in a single pass.
      *
      * Transaction behavior:
-     * - This method performs a read operation and does not modify any data.
+     * - This method reads the in-memory ledger only, no transaction is involved.
      *
      * Validation rules:
      * - No specific validation rules.
@@ -269,17 +263,15 @@ public class IngredientService {
      * - No specific error handling.
      *
      * Interactions with repositories/other services:
-     * - Interacts with IngredientRepository to fetch all ingredient data.
+     * - Interacts with StockLedgerService for the stock and thresholds.
      *
      * Security checks:
      * - No specific security checks.
      *
-     * @return the count of well-stocked ingredients
+     * @return the stock summary of all ingredients
      */
-    public long getWellStockedCount() {
-        return getAllIngredients().stream() // Fetch all ingredients and convert to a stream.
-                .filter(i -> i.getCurrentStock() > i.getThreshold()) // Filter well-stocked ingredients.
-                .count(); // Count the filtered ingredients.
+    public StockSummary getStockSummary() {
+        return StockSummary.of(stockLedgerService.getCommittedStockLevels(), stockLedgerService.getThresholds()); // No query, one pass.
     }
 
     /**
@@ -292,6 +284,7 @@ public class IngredientService {
      * 1. Fetch the ingredient entity by ID using IngredientRepository.
      * 2. Update the current stock of the ingredient.
      * 3. Save the updated ingredient entity to the database using IngredientRepository.
+     * 4. Record the new stock in the stock ledger.
      *
      * Transaction behavior:
      * - This method is transactional to ensure data consistency.
@@ -315,7 +308,29 @@ public class IngredientService {
     public void updateStock(Long id, Double newStock) {
         ingredientRepository.findById(id).ifPresent(ingredient -> { // Fetch the ingredient entity by ID.
             ingredient.setCurrentStock(newStock); // Update the current stock of the ingredient.
-            ingredientRepository.save(ingredient); // Save the updated ingredient entity to the database.
+            stockLedgerService.track(ingredientRepository.save(ingredient)); // Save the updated ingredient and sync the ledger.
         });
     }
+
+    /**
+     * Returns the ingredient with the committed stock of the ledger.
+     * The database value lags behind by the deductions not flushed yet. The stock is set on a
+     * detached copy, so the open persistence context never writes the ledger value back.
+     *
+     * @param ingredient the ingredient as loaded from the database
+     * @return a copy with the ledger stock, or the ingredient itself if the ledger does not know it yet
+     */
+    private Ingredient withLedgerStock(Ingredient ingredient) {
+        Double committedStock = stockLedgerService.getCommittedStock(ingredient.getId());
+        if (committedStock == null) { // Created after startup and not tracked yet, so the database value is current.
+            return ingredient;
+        }
+        Ingredient copy = new Ingredient();
+        copy.setId(ingredient.getId());
+        copy.setName(ingredient.getName());
+        copy.setThreshold(ingredient.getThreshold());
+        copy.setSupplier(ingredient.getSupplier());
+        copy.setCurrentStock(committedStock);
+        return copy;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.Food; // Import the Food model class.
+import com.example.Restaurant.repository.FoodRepository; // Import the FoodRepository interface.
+import com.example.Restaurant.repository.RecipeRepository; // Import the RecipeRepository interface.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.boot.context.event.ApplicationReadyEvent; // Import the ApplicationReadyEvent class.
+import org.springframework.context.event.EventListener; // Import the EventListener annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.transaction.support.TransactionSynchronization; // Import the TransactionSynchronization interface.
+import org.springframework.transaction.support.TransactionSynchronizationManager; // Import the TransactionSynchronizationManager class.
+
+import java.util.List; // Import the List interface.
+import java.util.Map; // Import the Map interface.
+import java.util.Set; // Import the Set interface.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+
+/**
+ * Service class maintaining an in-memory index from ingredients to the recipes that use them.
+ *
+ * Main purpose of this service:
+ * - To answer "is this ingredient used?" and "which dishes use it?" without scanning every recipe.
+ *
+ * Business features it provides:
+ * - Building the index from one query at startup.
+ * - Refreshing a single recipe's entries after it is saved.
+ * - Dropping a recipe's entries after it is deleted.
+ * - Listing the foods whose recipe uses an ingredient.
+ *
+ * Dependencies and component interactions:
+ * - RecipeRepository: Used to load recipe usages and as the fallback exists query.
+ * - FoodRepository: Used to load the foods returned by getDishesUsing.
+ * - RecipeService: Notifies this service when recipes are saved or deleted.
+ *
+ * Transaction handling:
+ * - Index updates requested inside a transaction are applied after it commits.
+ *
+ * Security/validation considerations:
+ * - Until the index is built, usage checks fall back to the database exists query.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class IngredientUsageService {
+
+    @Autowired // Injects the RecipeRepository dependency into this service.
+    private RecipeRepository recipeRepository;
+
+    @Autowired // Injects the FoodRepository dependency into this service.
+    private FoodRepository foodRepository;
+
+    private final Map<Long, Set<Long>> recipesByIngredient = new ConcurrentHashMap<>(); // Ingredient ID -> recipe IDs.
+    private final Map<Long, Set<Long>> ingredientsByRecipe = new ConcurrentHashMap<>(); // Recipe ID -> ingredient IDs.
+    private final Map<Long, Long> foodByRecipe = new ConcurrentHashMap<>(); // Recipe ID -> food ID.
+    private volatile boolean loaded;
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadIndex() {
+        recipeRepository.findAllIngredientUsages().forEach(this::add); // One query for all recipes.
+        loaded = true;
+    }
+
+    /**
+     * Checks if an ingredient is used in any recipe.
+     *
+     * @param ingredientId the ID of the ingredient to check
+     * @return true if at least one recipe uses the ingredient, false otherwise
+     */
+    public boolean isUsed(Long ingredientId) {
+        if (!loaded) {
+            return recipeRepository.existsByIngredientsIngredientId(ingredientId); // Index not built yet.
+        }
+        Set<Long> recipeIds = recipesByIngredient.get(ingredientId);
+        return recipeIds != null && !recipeIds.isEmpty();
+    }
+
+    /**
+     * Lists the foods whose recipe uses an ingredient.
+     *
+     * Business operation it performs:
+     * - Resolves the indexed recipe IDs to their foods with one query.
+     *
+     * @param ingredientId the ID of the ingredient
+     * @return the foods that use the ingredient
+     */
+    public List<Food> getDishesUsing(Long ingredientId) {
+        Set<Long> recipeIds = recipesByIngredient.getOrDefault(ingredientId, Set.of());
+        List<Long> foodIds = recipeIds.stream()
+                .map(foodByRecipe::get)
+                .filter(foodId -> foodId != null)
+                .distinct()
+                .toList();
+        return foodIds.isEmpty() ? List.of() : foodRepository.findAllById(foodIds);
+    }
+
+    /**
+     * Refreshes the index entries of a saved recipe, after the surrounding transaction commits.
+     *
+     * @param recipeId the ID of the saved recipe
+     */
+    public void recipeSaved(Long recipeId) {
+        afterCommit(() -> {
+            List<Object[]> usages = recipeRepository.findIngredientUsagesByRecipeId(recipeId);
+            synchronized (this) {
+                removeRecipe(recipeId);
+                usages.forEach(this::add);
+            }
+        });
+    }
+
+    /**
+     * Drops the index entries of a deleted recipe, after the surrounding transaction commits.
+     *
+     * @param recipeId the ID of the deleted recipe
+     */
+    public void recipeDeleted(Long recipeId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                removeRecipe(recipeId);
+            }
+        });
+    }
+
+    private void add(Object[] usage) {
+        Long recipeId = (Long) usage[0];
+        Long foodId = (Long) usage[1];
+        Long ingredientId = (Long) usage[2];
+        if (foodId != null) {
+            foodByRecipe.put(recipeId, foodId);
+        }
+        recipesByIngredient.computeIfAbsent(ingredientId, id -> ConcurrentHashMap.newKeySet()).add(recipeId);
+        ingredientsByRecipe.computeIfAbsent(recipeId, id -> ConcurrentHashMap.newKeySet()).add(ingredientId);
+    }
+
+    private void removeRecipe(Long recipeId) {
+        Set<Long> ingredientIds = ingredientsByRecipe.remove(recipeId);
+        if (ingredientIds != null) {
+            for (Long ingredientId : ingredientIds) {
+                Set<Long> recipeIds = recipesByIngredient.get(ingredientId);
+                if (recipeIds != null) {
+                    recipeIds.remove(recipeId);
+                }
+            }
+        }
+        foodByRecipe.remove(recipeId);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
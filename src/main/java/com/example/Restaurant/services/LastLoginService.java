@@ -0,0 +1,95 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.repository.UserRepository; // Import the UserRepository interface.
+import jakarta.annotation.PreDestroy; // Import the PreDestroy annotation.
+import org.slf4j.Logger; // Import the Logger interface.
+import org.slf4j.LoggerFactory; // Import the LoggerFactory class.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.scheduling.annotation.Scheduled; // Import the Scheduled annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.transaction.support.TransactionTemplate; // Import the TransactionTemplate class.
+
+import java.time.LocalDateTime; // Import the LocalDateTime class.
+import java.util.HashMap; // Import the HashMap class.
+import java.util.Map; // Import the Map interface.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+
+/**
+ * Service class recording the last login time of users off the login request path.
+ *
+ * Main purpose of this service:
+ * - To keep database writes out of login latency: a login only updates an in-memory map,
+ *   and a background writer stores the accumulated times in batches.
+ *
+ * Business features it provides:
+ * - Queuing the login time of a user, keeping only the latest login per user, so a terminal
+ *   that re-authenticates many times between flushes costs a single update.
+ * - Write-behind flushing of the queued times in one transaction.
+ *
+ * Dependencies and component interactions:
+ * - UserRepository: Used to write the last login times.
+ * - TransactionTemplate: Used to run each flush in a single transaction.
+ * - UserService: Delegates updateLastLogin to this service.
+ *
+ * Transaction handling:
+ * - Queued times are flushed every restaurant.last-login.flush-interval-ms milliseconds and
+ *   on shutdown; a failed flush keeps them queued for the next run.
+ *
+ * Security/validation considerations:
+ * - Only logins that already succeeded are queued, so the queue holds at most one entry per user.
+ * - A stored time is never replaced by an earlier one.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class LastLoginService {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginService.class);
+
+    @Autowired // Injects the UserRepository dependency into this service.
+    private UserRepository userRepository;
+
+    @Autowired // Injects the TransactionTemplate dependency into this service.
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, LocalDateTime> pendingLogins = new ConcurrentHashMap<>(); // Latest unwritten login per username.
+
+    /**
+     * Queues the login of a user at the current time.
+     *
+     * @param username the username of the user who logged in
+     */
+    public void record(String username) {
+        pendingLogins.merge(username, LocalDateTime.now(), (queued, now) -> now.isAfter(queued) ? now : queued);
+    }
+
+    /**
+     * Writes all queued login times to the database.
+     *
+     * Business operation it performs:
+     * - Applies every queued login with one UPDATE per user inside a single transaction,
+     *   regardless of how many times each user logged in since the last run.
+     *
+     * Transaction behavior:
+     * - Runs in its own transaction; on failure the times stay queued and are retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${restaurant.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+        Map<String, LocalDateTime> batch = new HashMap<>(pendingLogins);
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(userRepository::updateLastLogin));
+            batch.forEach(pendingLogins::remove); // Keeps logins queued while this batch was written.
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} last login times, will retry", batch.size(), e);
+        }
+    }
+
+    /**
+     * Flushes queued login times before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.Food; // Import the Food model class.
+import com.example.Restaurant.repository.FoodRepository; // Import the FoodRepository interface.
+import jakarta.annotation.PostConstruct; // Import the PostConstruct annotation.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.transaction.support.TransactionSynchronization; // Import the TransactionSynchronization interface.
+import org.springframework.transaction.support.TransactionSynchronizationManager; // Import the TransactionSynchronizationManager class.
+
+import java.util.LinkedHashMap; // Import the LinkedHashMap class.
+import java.util.List; // Import the List interface.
+import java.util.Map; // Import the Map interface.
+import java.util.Optional; // Import the Optional class.
+import java.util.concurrent.atomic.AtomicLong; // Import the AtomicLong class.
+import java.util.concurrent.atomic.LongAdder; // Import the LongAdder class.
+import java.util.function.Function; // Import the Function interface.
+
+/**
+ * Service class caching the menu: the foods of each category and each food by ID.
+ *
+ * Main purpose of this service:
+ * - To serve customer menu pages and food lookups from memory, since the menu only
+ *   changes when an admin saves or deletes a food.
+ *
+ * Business features it provides:
+ * - Fetching the foods of a category, loading and caching them on a miss.
+ * - Fetching a food by ID, remembering unknown IDs as well.
+ * - Invalidating the cache whenever a food is saved or deleted.
+ * - Hit and miss counters for both caches.
+ * - A menu version and last-modified time, bumped on every invalidation, used as
+ *   ETag and Last-Modified by the menu endpoints.
+ *
+ * Dependencies and component interactions:
+ * - FoodRepository: Used to load a category or a food on a cache miss.
+ * - FoodService and FoodController: Call invalidate after saving or deleting a food.
+ *
+ * Transaction handling:
+ * - Invalidations requested inside a transaction are repeated after it commits, so a
+ *   concurrent reader cannot re-cache the food as it was before the change.
+ *
+ * Security/validation considerations:
+ * - Both caches are bounded (restaurant.menu-cache.max-categories and
+ *   restaurant.menu-cache.max-foods) and evict the least recently used entry.
+ * - Cached foods are shared between requests and must be treated as read-only.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class MenuCacheService {
+
+    @Autowired // Injects the FoodRepository dependency into this service.
+    private FoodRepository foodRepository;
+
+    @Value("${restaurant.menu-cache.max-categories:64}") // Injects the maximum number of cached categories.
+    private int maxCategories;
+
+    @Value("${restaurant.menu-cache.max-foods:1000}") // Injects the maximum number of cached foods.
+    private int maxFoods;
+
+    private Map<String, List<Food>> categories; // Foods per category, guarded by itself.
+    private Map<Long, Optional<Food>> foods; // Food per ID, guarded by itself.
+    private final AtomicLong generation = new AtomicLong(); // Bumped on every invalidation; doubles as the menu version.
+    private final long startedAt = System.currentTimeMillis(); // Keeps ETags unique across restarts.
+    private volatile long lastModified = startedAt - startedAt % 1000; // Whole seconds, as sent in Last-Modified.
+
+    private final LongAdder categoryHits = new LongAdder();
+    private final LongAdder categoryMisses = new LongAdder();
+    private final LongAdder foodHits = new LongAdder();
+    private final LongAdder foodMisses = new LongAdder();
+
+    /**
+     * Creates the bounded caches once the configured sizes are known.
+     */
+    @PostConstruct
+    void init() {
+        categories = lruMap(maxCategories);
+        foods = lruMap(maxFoods);
+    }
+
+    /**
+     * Fetches the foods of a category.
+     *
+     * Step by step logic:
+     * 1. Return the cached list if present.
+     * 2. Otherwise load the category and cache it unless the cache was invalidated while loading.
+     *
+     * @param category the category of the foods
+     * @return an unmodifiable list of the foods in the category
+     */
+    public List<Food> getFoodsByCategory(String category) {
+        return lookup(categories, category, categoryHits, categoryMisses,
+                key -> List.copyOf(foodRepository.findByCategory(key)));
+    }
+
+    /**
+     * Fetches a food by ID.
+     *
+     * @param id the ID of the food
+     * @return an Optional containing the food, or an empty Optional if no such food exists
+     */
+    public Optional<Food> getFood(Long id) {
+        return lookup(foods, id, foodHits, foodMisses, foodRepository::findById);
+    }
+
+    /**
+     * Drops a saved or deleted food and every cached category.
+     * A save can move a food between categories, and categories are few, so all of them
+     * are reloaded on their next request.
+     *
+     * @param foodId the ID of the changed food, or null if unknown
+     */
+    public void invalidate(Long foodId) {
+        evict(foodId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(foodId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the strong ETag of the current menu version.
+     * It changes whenever a food is saved or deleted, and on every restart.
+     *
+     * @return the quoted ETag value
+     */
+    public String getETag() {
+        return "\"menu-" + startedAt + "-" + generation.get() + "\"";
+    }
+
+    /**
+     * Gets the time the menu last changed (or the application started), in whole seconds.
+     *
+     * @return the last modification time in milliseconds since the epoch
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Gets the hit and miss counters and current sizes of both caches.
+     *
+     * @return the statistics keyed by name, e.g. "categoryHits" or "foodSize"
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("categoryHits", categoryHits.sum());
+        stats.put("categoryMisses", categoryMisses.sum());
+        stats.put("categoryHitRatio", ratio(categoryHits.sum(), categoryMisses.sum()));
+        synchronized (categories) {
+            stats.put("categorySize", categories.size());
+        }
+        stats.put("foodHits", foodHits.sum());
+        stats.put("foodMisses", foodMisses.sum());
+        stats.put("foodHitRatio", ratio(foodHits.sum(), foodMisses.sum()));
+        synchronized (foods) {
+            stats.put("foodSize", foods.size());
+        }
+        stats.put("invalidations", generation.get());
+        return stats;
+    }
+
+    private <K, V> V lookup(Map<K, V> cache, K key, LongAdder hits, LongAdder misses, Function<K, V> loader) {
+        synchronized (cache) {
+            V cached = cache.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached; // Cache hit, no database access.
+            }
+        }
+        misses.increment();
+        long loadedGeneration = generation.get();
+        V loaded = loader.apply(key); // Load outside the lock.
+        synchronized (cache) {
+            if (generation.get() == loadedGeneration) { // Do not cache a menu that changed while we were loading it.
+                cache.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private void evict(Long foodId) {
+        long now = System.currentTimeMillis();
+        lastModified = now - now % 1000;
+        generation.incrementAndGet();
+        synchronized (categories) {
+            categories.clear();
+        }
+        if (foodId != null) {
+            synchronized (foods) {
+                foods.remove(foodId);
+            }
+        }
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) { // Access order, so the eldest entry is the least recently used.
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
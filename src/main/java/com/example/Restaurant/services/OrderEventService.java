@@ -0,0 +1,83 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.config.StompDestinations; // Import the StompDestinations class.
+import com.example.Restaurant.model.Order; // Import the Order model class.
+import com.example.Restaurant.model.OrderEvent; // Import the OrderEvent model class.
+import com.example.Restaurant.model.OrderStatus; // Import the OrderStatus enum.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+
+/**
+ * Service class for broadcasting order changes to WebSocket subscribers.
+ *
+ * Main purpose of this service:
+ * - To publish one small typed event per changed order instead of the full order list.
+ *
+ * Business features it provides:
+ * - Publishing ORDER_CREATED events when an order is placed.
+ * - Publishing STATUS_CHANGED or DELIVERED events when an order status changes.
+ * - Routing events per station: the kitchen receives every event, waiters only the events
+ *   of orders entering or leaving the pickup screen (ready and delivered).
+ *
+ * Dependencies and component interactions:
+ * - EventStreamService: Used to send the events to the kitchen and waiter order topics with
+ *   sequence numbers, so reconnecting clients can resume.
+ * - DomainEventPublisher: Used to send the events only after the order change has committed,
+ *   off the request thread.
+ *
+ * Transaction handling:
+ * - This service does not access the database. Events of a rolled back transaction are never sent.
+ *
+ * Security/validation considerations:
+ * - Events carry only the order ID, status and version; clients fetch details separately.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class OrderEventService {
+
+    @Autowired // Injects the EventStreamService dependency into this service.
+    private EventStreamService eventStreamService;
+
+    @Autowired // Injects the DomainEventPublisher dependency into this service.
+    private DomainEventPublisher domainEventPublisher;
+
+    /**
+     * Publishes an ORDER_CREATED event for a newly placed order.
+     *
+     * @param order the order that was placed
+     */
+    public void publishOrderCreated(Order order) {
+        publish(OrderEvent.of(OrderEvent.Type.ORDER_CREATED, order)); // Announce the new order.
+    }
+
+    /**
+     * Publishes a status change for an order.
+     *
+     * Business operation it performs:
+     * - Sends a DELIVERED event when the order has been delivered, so clients can drop it.
+     * - Sends a STATUS_CHANGED event for every other status.
+     *
+     * @param orderId the ID of the order whose status changed
+     * @param status the new status of the order
+     * @param version the version of the order after the change
+     */
+    public void publishStatusChanged(Long orderId, OrderStatus status, Long version) {
+        OrderEvent.Type type = status == OrderStatus.DELIVERED // Delivered orders leave the active views.
+                ? OrderEvent.Type.DELIVERED
+                : OrderEvent.Type.STATUS_CHANGED;
+        publish(new OrderEvent(type, orderId, status, version)); // Announce the status change.
+    }
+
+    /**
+     * Sends an order event to the stations that render it, once the current transaction commits.
+     *
+     * @param event the event to send
+     */
+    private void publish(OrderEvent event) {
+        domainEventPublisher.publish(() -> {
+            eventStreamService.publish(StompDestinations.KITCHEN_ORDERS, event); // The kitchen tracks every active order.
+            if (event.getType() == OrderEvent.Type.DELIVERED || event.getStatus() == OrderStatus.READY) {
+                eventStreamService.publish(StompDestinations.WAITER_ORDERS, event); // Waiters only show ready orders.
+            }
+        });
+    }
+}
@@ -1,16 +1,32 @@
 package com.example.Restaurant.services;
 
+                import com.example.Restaurant.config.InsertStatementCounter; // Import the InsertStatementCounter class.
+                import com.example.Restaurant.config.StompDestinations; // Import the StompDestinations class.
                 import com.example.Restaurant.model.*; // Import all classes from the model package.
-                import com.example.Restaurant.repository.CartItemRepository; // Import the CartItemRepository interface.
                 import com.example.Restaurant.repository.OrderRepository; // Import the OrderRepository interface.
+                import org.slf4j.Logger; // Import the Logger interface.
+                import org.slf4j.LoggerFactory; // Import the LoggerFactory class.
                 import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+                import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
+                import org.springframework.data.domain.PageRequest; // Import the PageRequest class.
+                import org.springframework.data.domain.Pageable; // Import the Pageable interface.
                 import org.springframework.messaging.simp.SimpMessagingTemplate; // Import the SimpMessagingTemplate class.
+                import org.springframework.security.authentication.AnonymousAuthenticationToken; // Import the AnonymousAuthenticationToken class.
+                import org.springframework.security.core.Authentication; // Import the Authentication interface.
+                import org.springframework.security.core.context.SecurityContextHolder; // Import the SecurityContextHolder class.
                 import org.springframework.stereotype.Service; // Import the Service annotation.
                 import org.springframework.transaction.annotation.Transactional; // Import the Transactional annotation.
 
                 import java.time.LocalDateTime; // Import the LocalDateTime class.
+                import java.util.ArrayList; // Import the ArrayList class.
+                import java.util.HashMap; // Import the HashMap class.
+                import java.util.LinkedHashMap; // Import the LinkedHashMap class.
                 import java.util.List; // Import the List interface.
                 import java.util.Map; // Import the Map interface.
+                import java.util.Optional; // Import the Optional class.
+                import java.util.Set; // Import the Set interface.
+                import java.util.function.Consumer; // Import the Consumer interface.
+                import java.util.function.Function; // Import the Function interface.
 
                 /**
                  * Service class for managing order-related operations.
@@ -21,19 +37,24 @@ package com.example.Restaurant.services;
                  * Business features it provides:
                  * - Placing a new order.
                  * - Updating the status of an existing order.
-                 * - Fetching all orders.
                  * - Fetching a specific order by ID.
                  * - Fetching orders by status.
+                 * - Fetching pages of the kitchen queue (every undelivered order, oldest first).
+                 * - Fetching and streaming the order history with keyset (cursor) pagination.
+                 * - Loading kitchen tickets, waiter summaries and order details as read-only projections.
                  *
                  * Dependencies and component interactions:
                  * - OrderRepository: Used to perform CRUD operations on order entities.
-                 * - CartItemRepository: Used to fetch and delete cart items.
-                 * - RecipeService: Used to fetch recipes for foods.
-                 * - IngredientService: Used to manage ingredient stock.
+                 * - BillOfMaterialsService: Used to fetch compiled recipes for foods.
+                 * - StockLedgerService: Used to reserve ingredient stock atomically.
                  * - SimpMessagingTemplate: Used to send real-time messages.
+                 * - StockBroadcastService: Used to broadcast stock changes in batches.
+                 * - OrderEventService: Used to broadcast per-order change events.
+                 * - DomainEventPublisher: Used to send alerts once the transaction has ended, off the request thread.
                  *
                  * Transaction handling:
-                 * - Methods that modify data (placeOrder, updateOrderStatus, updateIngredientsStock) are annotated with @Transactional to ensure data consistency.
+                 * - Methods that modify data (placeOrder, updateOrderStatus) are annotated with @Transactional to ensure data consistency.
+                 * - Real-time messages are collected during the transaction and sent after it has ended.
                  *
                  * Security/validation considerations:
                  * - Ensures that order data is correctly handled and stored.
@@ -44,38 +65,64 @@ package com.example.Restaurant.services;
                 @Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
                 public class OrderService {
 
+                    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+                    /**
+                     * The largest page the order history returns, and the chunk size of the history stream.
+                     */
+                    public static final int HISTORY_MAX_PAGE_SIZE = 500;
+
+                    /**
+                     * The start of the kitchen queue for undelivered orders, which are shown however old they are.
+                     */
+                    private static final LocalDateTime QUEUE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
                     @Autowired // Injects the OrderRepository dependency into this service.
                     private OrderRepository orderRepository;
 
-                    @Autowired // Injects the CartItemRepository dependency into this service.
-                    private CartItemRepository cartItemRepository;
-
-                    @Autowired // Injects the RecipeService dependency into this service.
-                    private RecipeService recipeService;
+                    @Autowired // Injects the BillOfMaterialsService dependency into this service.
+                    private BillOfMaterialsService billOfMaterialsService;
 
-                    @Autowired // Injects the IngredientService dependency into this service.
-                    private IngredientService ingredientService;
+                    @Autowired // Injects the StockLedgerService dependency into this service.
+                    private StockLedgerService stockLedgerService;
 
                     @Autowired // Injects the SimpMessagingTemplate dependency into this service.
                     private SimpMessagingTemplate messagingTemplate;
 
+                    @Autowired // Injects the DomainEventPublisher dependency into this service.
+                    private DomainEventPublisher domainEventPublisher;
+
+                    @Autowired // Injects the StockBroadcastService dependency into this service.
+                    private StockBroadcastService stockBroadcastService;
+
+                    @Autowired // Injects the OrderEventService dependency into this service.
+                    private OrderEventService orderEventService;
+
+                    @Value("${restaurant.orders.queue-window-hours:24}") // Injects how far back the kitchen queue looks.
+                    private long queueWindowHours;
+
+                    @Value("${restaurant.orders.queue-page-size:100}") // Injects the number of orders per kitchen queue page.
+                    private int queuePageSize;
+
                     /**
                      * Places a new order.
                      *
                      * Business operation it performs:
-                     * - Places a new order based on the current cart items.
+                     * - Places a new order based on the items of one session's cart.
                      *
                      * Step by step logic:
-                     * 1. Fetch all cart items.
+                     * 1. Take the cart items handed over by the caller.
                      * 2. Validate that the cart is not empty.
                      * 3. Validate the table number.
                      * 4. Create a new order and set its properties.
                      * 5. Create order items from cart items.
-                     * 6. Save the order to the database.
-                     * 7. Clear the cart.
+                     * 6. Save the order and flush it, inserting the order items in JDBC batches.
+                     * 7. Publish an ORDER_CREATED event, sent once the order has committed.
                      *
                      * Transaction behavior:
                      * - This method is transactional to ensure data consistency.
+                     * - Cart items are never persisted; the caller removes them from the cart once the order is placed.
+                     * - Logs how many rows were written per INSERT statement, to confirm batching is in effect.
                      *
                      * Validation rules:
                      * - Ensures that the cart is not empty.
@@ -86,18 +133,18 @@ package com.example.Restaurant.services;
                      * - Throws IllegalArgumentException if the table number is invalid.
                      *
                      * Interactions with repositories/other services:
-                     * - Interacts with CartItemRepository to fetch and delete cart items.
                      * - Interacts with OrderRepository to save the order.
+                     * - Interacts with OrderEventService to announce the new order.
                      *
                      * Security checks:
                      * - No specific security checks.
                      *
                      * @param tableNumber the table number for the order
+                     * @param cartItems the items of the cart being checked out
                      * @return the placed order
                      */
                     @Transactional
-                    public Order placeOrder(String tableNumber) {
-                        List<CartItem> cartItems = cartItemRepository.findAll(); // Fetch all cart items
+                    public Order placeOrder(String tableNumber, List<CartItem> cartItems) {
                         if (cartItems.isEmpty()) { // Check if the cart is empty
                             throw new IllegalStateException("The cart is empty!"); // Throw an exception if the cart is empty
                         }
@@ -114,7 +161,7 @@ package com.example.Restaurant.services;
                         Order order = new Order(); // Create a new order
                         order.setTableNumber(tableNumber); // Set the table number for the order
                         order.setOrderTime(LocalDateTime.now()); // Set the order time to the current time
-                        order.setStatus("Pending"); // Set the initial status of the order to "Pending"
+                        order.setStatus(OrderStatus.NEW); // Set the initial status of the order to "Pending"
                         order.setTotalPrice(cartItems.stream().mapToDouble(CartItem::getTotalPrice).sum()); // Calculate and set the total price of the order
 
                         List<OrderItem> orderItems = cartItems.stream() // Create order items from cart items
@@ -122,8 +169,13 @@ package com.example.Restaurant.services;
                                 .toList();
 
                         order.setOrderItems(orderItems); // Set the order items for the order
-                        Order savedOrder = orderRepository.save(order); // Save the order to the database
-                        cartItemRepository.deleteAll(); // Clear the cart
+                        InsertStatementCounter.reset(); // Count only this checkout's INSERT statements
+                        Order savedOrder = orderRepository.saveAndFlush(order); // Save the order and its items in batched inserts
+                        int rows = orderItems.size() + 1;
+                        int statements = InsertStatementCounter.getCount();
+                        log.info("Order {} persisted {} rows with {} insert statements ({} rows per statement)",
+                                savedOrder.getId(), rows, statements, statements == 0 ? rows : (double) rows / statements);
+                        orderEventService.publishOrderCreated(savedOrder); // Announce the new order to connected screens
 
                         return savedOrder; // Return the placed order
                     }
@@ -132,30 +184,34 @@ package com.example.Restaurant.services;
                      * Updates the status of an existing order.
                      *
                      * Business operation it performs:
-                     * - Updates the status of an order based on the specified status.
+                     * - Moves an order to the specified status, if OrderStatus allows the transition.
                      *
                      * Step by step logic:
-                     * 1. Fetch the order by ID.
-                     * 2. Validate the new status.
-                     * 3. If the new status is "Preparing", check ingredient availability and update stock.
-                     * 4. Update the order status and save the order.
+                     * 1. Read the current status and version of the order (without loading its items).
+                     * 2. Validate the transition from the current to the new status.
+                     * 3. Write the new status with a single compare-and-set UPDATE on status and version.
+                     * 4. If the new status is READY, reserve the ingredients of the whole order in the stock ledger.
+                     * 5. Publish a STATUS_CHANGED or DELIVERED event carrying the new version.
                      *
                      * Transaction behavior:
                      * - This method is transactional to ensure data consistency.
+                     * - Stock is only reserved once the compare-and-set has succeeded, so a click that loses the race
+                     *   never deducts anything, not even briefly.
+                     * - If the reservation fails the transaction rolls back, which also undoes the status change.
                      *
                      * Validation rules:
                      * - Ensures that the order exists.
-                     * - Ensures that the new status is valid.
+                     * - Ensures that the transition is allowed by OrderStatus.
                      *
                      * Error handling:
-                     * - Throws RuntimeException if ingredient availability check fails.
-                     * - Throws RuntimeException if stock update fails.
+                     * - Throws IllegalArgumentException if the order does not exist.
+                     * - Throws IllegalStateException if the transition is not allowed or another screen changed the order first.
+                     * - Throws RuntimeException if the ingredient stock cannot be reserved.
                      *
                      * Interactions with repositories/other services:
-                     * - Interacts with OrderRepository to fetch and save the order.
-                     * - Interacts with RecipeService to fetch recipes.
-                     * - Interacts with IngredientService to update ingredient stock.
-                     * - Interacts with SimpMessagingTemplate to send real-time messages.
+                     * - Interacts with OrderRepository to read the status and compare-and-set it.
+                     * - Interacts with StockLedgerService to reserve ingredient stock.
+                     * - Interacts with OrderEventService to announce the status change after commit.
                      *
                      * Security checks:
                      * - No specific security checks.
@@ -163,40 +219,39 @@ package com.example.Restaurant.services;
                      * @param orderId the ID of the order to update
                      * @param status the new status to set
                      */
-
                     @Transactional
-                    public void updateOrderStatus(Long orderId, String status) {
-                        Order order = getOrderById(orderId);
+                    public void updateOrderStatus(Long orderId, OrderStatus status) {
+                        OrderRepository.StatusView current = orderRepository.findStatusById(orderId)
+                                .orElseThrow(() -> new IllegalArgumentException("Order with ID " + orderId + " not found"));
+                        current.getStatus().checkTransitionTo(status); // Reject transitions the state machine does not allow
 
-                        if ("Ready".equals(status)) {
+                        LocalDateTime deliveryTime = status == OrderStatus.DELIVERED ? LocalDateTime.now() : null;
+                        int updated = orderRepository.compareAndSetStatus(
+                                orderId, current.getStatus(), current.getVersion(), status, deliveryTime);
+                        if (updated == 0) { // Another screen moved the order first; nothing has been reserved yet
+                            throw new IllegalStateException("Order " + orderId + " was changed by someone else, please refresh");
+                        }
+
+                        if (status == OrderStatus.READY) {
                             try {
-                                if (!checkIngredientsAvailability(order)) {
-                                    throw new RuntimeException("Insufficient ingredient stock!");
-                                }
-                                updateIngredientsStock(order);
+                                updateIngredientsStock(getOrderById(orderId)); // Atomically check and deduct the whole order's ingredients
                             } catch (Exception e) {
-                                throw new RuntimeException("Error updating stock: " + e.getMessage());
+                                throw new RuntimeException("Error updating stock: " + e.getMessage()); // Rolls back the status change
                             }
                         }
-
-                        order.setStatus(status);
-                        if ("Delivered".equals(status)) {
-                            order.setDeliveryTime(LocalDateTime.now());
-                        }
-                        orderRepository.save(order);
+                        orderEventService.publishStatusChanged(orderId, status, current.getVersion() + 1);
                     }
 
                     /**
-                     * Checks the availability of ingredients for an order.
+                     * Calculates the ingredient amounts required for an order.
                      *
                      * Business operation it performs:
-                     * - Checks if the required ingredients for the order are available in stock.
+                     * - Sums the recipe amounts of every order item, per ingredient.
                      *
                      * Step by step logic:
                      * 1. Iterate through the order items.
-                     * 2. Fetch the recipe for each food item.
-                     * 3. Check if the required amount of each ingredient is available.
-                     * 4. Send a real-time alert if any ingredient is insufficient.
+                     * 2. Fetch the cached bill of materials for each food item.
+                     * 3. Add the required amount of each ingredient to the total for that ingredient.
                      *
                      * Transaction behavior:
                      * - This method performs a read operation and does not modify any data.
@@ -208,132 +263,214 @@ package com.example.Restaurant.services;
                      * - Throws RuntimeException if the recipe is not found.
                      *
                      * Interactions with repositories/other services:
-                     * - Interacts with RecipeService to fetch recipes.
-                     * - Interacts with SimpMessagingTemplate to send real-time alerts.
+                     * - Interacts with BillOfMaterialsService to fetch compiled recipes.
                      *
                      * Security checks:
                      * - No specific security checks.
                      *
-                     * @param order the order to check
-                     * @return true if all ingredients are available, false otherwise
+                     * @param order the order to calculate requirements for
+                     * @return the total required amount per ingredient ID
                      */
-                    private boolean checkIngredientsAvailability(Order order) {
+                    public Map<Long, Double> calculateIngredientRequirements(Order order) {
+                        Map<Long, Double> requirements = new LinkedHashMap<>();
                         for (OrderItem orderItem : order.getOrderItems()) { // Iterate through the order items
-                            Recipe recipe = recipeService.getRecipeByFoodId(orderItem.getFood().getId()) // Fetch the recipe for each food item
+                            BillOfMaterials billOfMaterials = billOfMaterialsService.getBillOfMaterials(orderItem.getFood().getId()) // Fetch the compiled recipe for each food item
                                     .orElseThrow(() -> new RuntimeException("Recipe for food " + orderItem.getFood().getName() + " not found")); // Throw an exception if the recipe is not found
-
-                            for (RecipeIngredient recipeIngredient : recipe.getIngredients()) { // Iterate through the recipe ingredients
-                                Ingredient ingredient = recipeIngredient.getIngredient(); // Get the ingredient
-                                double requiredAmount = recipeIngredient.getAmount() * orderItem.getQuantity(); // Calculate the required amount of the ingredient
-
-                                if (ingredient.getCurrentStock() < requiredAmount) { // Check if the ingredient stock is insufficient
-                                    messagingTemplate.convertAndSend("/topic/alerts", // Send a real-time alert if the ingredient stock is insufficient
-                                            Map.of(
-                                                    "type", "INSUFFICIENT_STOCK",
-                                                    "ingredient", ingredient.getName(),
-                                                    "required", requiredAmount,
-                                                    "available", ingredient.getCurrentStock()
-                                            ));
-                                    return false; // Return false if any ingredient is insufficient
-                                }
-                            }
+                            billOfMaterials.addTo(requirements, orderItem.getQuantity()); // The same ingredient may appear in several dishes
                         }
-                        return true; // Return true if all ingredients are available
+                        return requirements;
                     }
 
                     /**
                      * Updates the stock of ingredients for an order.
                      *
                      * Business operation it performs:
-                     * - Updates the stock of ingredients based on the order items.
+                     * - Reserves the ingredients of the whole order in the stock ledger, all-or-nothing.
                      *
                      * Step by step logic:
-                     * 1. Iterate through the order items.
-                     * 2. Fetch the recipe for each food item.
-                     * 3. Update the stock of each ingredient.
-                     * 4. Send real-time updates and alerts.
+                     * 1. Calculate the required amount per ingredient.
+                     * 2. Reserve all amounts in the stock ledger in one atomic step.
+                     * 3. If any ingredient is short, send an INSUFFICIENT_STOCK alert to the admins and to the
+                     *    signed-in user who changed the status, and fail.
+                     * 4. Otherwise report the changed ingredients to the stock broadcaster.
                      *
                      * Transaction behavior:
-                     * - This method is transactional to ensure data consistency.
+                     * - The ledger writes the deductions back to the database asynchronously and
+                     *   releases the reservation if the surrounding transaction rolls back.
                      *
                      * Validation rules:
                      * - Ensures that the recipe exists for each food item.
+                     * - Ensures that every ingredient has enough stock before deducting any of them.
                      *
                      * Error handling:
-                     * - Throws RuntimeException if the recipe is not found.
+                     * - Throws RuntimeException if the recipe is not found or the stock is insufficient.
                      *
                      * Interactions with repositories/other services:
-                     * - Interacts with RecipeService to fetch recipes.
-                     * - Interacts with IngredientService to update ingredient stock.
-                     * - Interacts with SimpMessagingTemplate to send real-time updates and alerts.
+                     * - Interacts with BillOfMaterialsService to fetch compiled recipes.
+                     * - Interacts with StockLedgerService to reserve ingredient stock.
+                     * - Interacts with DomainEventPublisher and SimpMessagingTemplate to send the insufficient stock
+                     *   alert after the transaction has rolled back.
+                     * - Interacts with StockBroadcastService to send stock updates and low stock alerts.
                      *
                      * Security checks:
                      * - No specific security checks.
                      *
                      * @param order the order to update stock for
                      */
-                    @Transactional
                     private void updateIngredientsStock(Order order) {
-                        for (OrderItem orderItem : order.getOrderItems()) { // Iterate through the order items
-                            Recipe recipe = recipeService.getRecipeByFoodId(orderItem.getFood().getId()) // Fetch the recipe for each food item
-                                    .orElseThrow(() -> new RuntimeException("Recipe for food " + orderItem.getFood().getName() + " not found")); // Throw an exception if the recipe is not found
+                        Map<Long, Double> requirements = calculateIngredientRequirements(order);
 
-                            for (RecipeIngredient recipeIngredient : recipe.getIngredients()) { // Iterate through the recipe ingredients
-                                Ingredient ingredient = recipeIngredient.getIngredient(); // Get the ingredient
-                                double requiredAmount = recipeIngredient.getAmount() * orderItem.getQuantity(); // Calculate the required amount of the ingredient
-                                double newStock = ingredient.getCurrentStock() - requiredAmount; // Calculate the new stock of the ingredient
-
-                                ingredient.setCurrentStock(newStock); // Update the ingredient stock
-                                Ingredient updatedIngredient = ingredientService.saveIngredient(ingredient); // Save the updated ingredient
-
-                                // Send real-time stock update
-                                messagingTemplate.convertAndSend("/topic/stock-updates",
-                                        Map.of(
-                                                "type", "STOCK_UPDATE",
-                                                "ingredientId", updatedIngredient.getId(),
-                                                "newStock", updatedIngredient.getCurrentStock()
-                                        ));
-
-                                // Send low stock alert
-                                if (newStock <= ingredient.getThreshold()) {
-                                    messagingTemplate.convertAndSend("/topic/alerts",
-                                            Map.of(
-                                                    "type", "LOW_STOCK_ALERT",
-                                                    "ingredient", ingredient
-                                            ));
+                        Optional<StockLedgerService.Shortfall> shortfall = stockLedgerService.reserve(requirements); // Check and deduct atomically
+                        if (shortfall.isPresent()) {
+                            Long ingredientId = shortfall.get().getIngredientId();
+                            String ingredientName = stockLedgerService.getName(ingredientId); // Null for an unnamed ingredient or one deleted meanwhile
+                            Map<String, Object> alert = Map.of(
+                                    "type", "INSUFFICIENT_STOCK",
+                                    "orderId", order.getId(),
+                                    "ingredient", ingredientName != null ? ingredientName : "Ingredient #" + ingredientId,
+                                    "required", shortfall.get().getRequired(),
+                                    "available", shortfall.get().getAvailable()
+                            );
+                            Authentication actor = SecurityContextHolder.getContext().getAuthentication();
+                            String username = actor != null && !(actor instanceof AnonymousAuthenticationToken) ? actor.getName() : null; // Read on the request thread
+                            domainEventPublisher.publishAfterCompletion(() -> { // Sent once the failed transaction has rolled back
+                                messagingTemplate.convertAndSend(StompDestinations.ADMIN_ALERTS, alert); // Managers see every blocked order
+                                if (username != null) {
+                                    messagingTemplate.convertAndSendToUser(username, StompDestinations.USER_ALERTS, alert); // And so does the cook who tried
                                 }
-                            }
+                            });
+                            throw new RuntimeException("Insufficient ingredient stock!");
                         }
+
+                        stockBroadcastService.stockChanged(requirements.keySet()); // Batched with other changes and sent after commit
                     }
 
                     /**
-                     * Fetches all orders.
+                     * Fetches one page of the kitchen queue.
                      *
                      * Business operation it performs:
-                     * - Retrieves all order entities from the database.
+                     * - Retrieves the orders in the given statuses, oldest first, with their items and foods.
+                     *   Delivered orders are limited to the last restaurant.orders.queue-window-hours hours;
+                     *   undelivered orders are included however old they are.
                      *
                      * Step by step logic:
-                     * 1. Call the findAll method of OrderRepository to get all orders.
+                     * 1. Read the IDs of the requested page from the (status, order_time) index.
+                     * 2. Fetch those orders with their items and foods in one query.
                      *
                      * Transaction behavior:
                      * - This method performs a read operation and does not modify any data.
                      *
                      * Validation rules:
-                     * - No specific validation rules.
+                     * - Negative page numbers are treated as the first page.
                      *
                      * Error handling:
                      * - No specific error handling.
                      *
                      * Interactions with repositories/other services:
-                     * - Interacts with OrderRepository to fetch all order data.
+                     * - Interacts with OrderRepository to read the queue.
                      *
                      * Security checks:
                      * - No specific security checks.
                      *
-                     * @return a list of all order entities
+                     * @param statuses the statuses to include
+                     * @param page the zero-based page number
+                     * @return the orders of the page, oldest first
                      */
-                    public List<Order> getAllOrders() {
-                        return orderRepository.findAll(); // Fetch all orders from the database
+                    public List<Order> getOrderQueue(Set<OrderStatus> statuses, int page) {
+                        List<Long> ids = findQueueIds(statuses, page);
+                        return ids.isEmpty() ? List.of() : orderRepository.findWithItemsByIdIn(ids);
+                    }
+
+                    /**
+                     * Fetches one page of the order history using a keyset cursor.
+                     *
+                     * Business operation it performs:
+                     * - Retrieves the orders after the given cursor that match the status and time filters,
+                     *   in ascending ID order, with their items and foods.
+                     *
+                     * Step by step logic:
+                     * 1. Clamp the page size to HISTORY_MAX_PAGE_SIZE.
+                     * 2. Read the IDs of the page (ID greater than the cursor, filters applied).
+                     * 3. Load the detail views of those orders and their lines with two projection queries.
+                     *
+                     * Transaction behavior:
+                     * - This method performs a read operation and does not modify any data.
+                     *
+                     * Validation rules:
+                     * - The page size is limited to between 1 and HISTORY_MAX_PAGE_SIZE.
+                     *
+                     * Error handling:
+                     * - No specific error handling.
+                     *
+                     * Interactions with repositories/other services:
+                     * - Interacts with OrderRepository to read the history.
+                     *
+                     * Security checks:
+                     * - No specific security checks.
+                     *
+                     * @param after the last order ID of the previous page, or null for the first page
+                     * @param statuses the statuses to include
+                     * @param from the earliest order time to include
+                     * @param to the order time to stop before
+                     * @param limit the maximum number of orders to return
+                     * @return the orders of the page; the ID of the last one is the cursor of the next page
+                     */
+                    public List<OrderDetail> getOrderHistory(Long after, Set<OrderStatus> statuses,
+                                                             LocalDateTime from, LocalDateTime to, int limit) {
+                        int size = Math.min(Math.max(limit, 1), HISTORY_MAX_PAGE_SIZE);
+                        List<Long> ids = orderRepository.findHistoryIds(after != null ? after : 0L, statuses, from, to,
+                                PageRequest.of(0, size)); // Keyset page: no OFFSET, constant cost at any depth
+                        if (ids.isEmpty()) {
+                            return List.of();
+                        }
+                        List<OrderDetail> orders = orderRepository.findDetailsByIdIn(ids); // Already in cursor (ID) order
+                        attachLines(ids, orders, OrderDetail::id, OrderDetail::orderItems);
+                        return orders;
+                    }
+
+                    /**
+                     * Streams the order history to a consumer.
+                     *
+                     * Business operation it performs:
+                     * - Hands every order that matches the status and time filters to the consumer, in ascending ID order.
+                     *
+                     * Step by step logic:
+                     * 1. Fetch a keyset page of HISTORY_MAX_PAGE_SIZE orders.
+                     * 2. Pass each order to the consumer, then drop the page.
+                     * 3. Continue after the last ID until a page comes back short.
+                     *
+                     * Transaction behavior:
+                     * - Each page is read in its own short read-only query, so no connection or cursor is held
+                     *   open while a slow client consumes the stream.
+                     *
+                     * Validation rules:
+                     * - No specific validation rules.
+                     *
+                     * Error handling:
+                     * - Exceptions thrown by the consumer stop the stream and are propagated.
+                     *
+                     * Interactions with repositories/other services:
+                     * - Interacts with OrderRepository to read the history page by page.
+                     *
+                     * Security checks:
+                     * - No specific security checks.
+                     *
+                     * @param statuses the statuses to include
+                     * @param from the earliest order time to include
+                     * @param to the order time to stop before
+                     * @param consumer receives each order
+                     */
+                    public void streamOrderHistory(Set<OrderStatus> statuses, LocalDateTime from, LocalDateTime to,
+                                                   Consumer<OrderDetail> consumer) {
+                        Long after = 0L;
+                        List<OrderDetail> page;
+                        do {
+                            page = getOrderHistory(after, statuses, from, to, HISTORY_MAX_PAGE_SIZE);
+                            page.forEach(consumer); // Only one page is held in memory at a time
+                            if (!page.isEmpty()) {
+                                after = page.get(page.size() - 1).id();
+                            }
+                        } while (page.size() == HISTORY_MAX_PAGE_SIZE);
                     }
 
                     /**
@@ -368,6 +505,162 @@ package com.example.Restaurant.services;
                                 .orElseThrow(() -> new IllegalArgumentException("Order with ID " + orderId + " not found")); // Throw an exception if the order is not found
                     }
 
+                    /**
+                     * Fetches the detail view of a specific order.
+                     *
+                     * Business operation it performs:
+                     * - Loads the order and its lines as read-only projections, without loading the entity or its foods.
+                     *
+                     * Error handling:
+                     * - Throws IllegalArgumentException if the order is not found.
+                     *
+                     * @param orderId the ID of the order to fetch
+                     * @return the detail view of the order
+                     */
+                    public OrderDetail getOrderDetail(Long orderId) {
+                        List<Long> ids = List.of(orderId);
+                        List<OrderDetail> details = orderRepository.findDetailsByIdIn(ids);
+                        if (details.isEmpty()) {
+                            throw new IllegalArgumentException("Order with ID " + orderId + " not found");
+                        }
+                        attachLines(ids, details, OrderDetail::id, OrderDetail::orderItems);
+                        return details.get(0);
+                    }
+
+                    /**
+                     * Fetches one page of the kitchen queue as kitchen tickets.
+                     *
+                     * Business operation it performs:
+                     * - Same selection as getOrderQueue, but loaded as ticket projections (table, time,
+                     *   status, version and food names) instead of entities.
+                     *
+                     * Step by step logic:
+                     * 1. Read the IDs of the requested page from the (status, order_time) index.
+                     * 2. Load the tickets and their lines with two projection queries.
+                     *
+                     * Transaction behavior:
+                     * - This method performs a read operation and does not modify any data.
+                     *
+                     * @param statuses the statuses to include
+                     * @param page the zero-based page number
+                     * @return the tickets of the page, oldest first
+                     */
+                    public List<KitchenTicket> getKitchenTickets(Set<OrderStatus> statuses, int page) {
+                        List<Long> ids = findQueueIds(statuses, page);
+                        if (ids.isEmpty()) {
+                            return List.of();
+                        }
+                        List<KitchenTicket> tickets = orderRepository.findTicketsByIdIn(ids);
+                        attachLines(ids, tickets, KitchenTicket::id, KitchenTicket::orderItems);
+                        return tickets;
+                    }
+
+                    /**
+                     * Fetches the tickets of all active orders, for the kitchen and waiter snapshot.
+                     *
+                     * @return the tickets of the orders that have not been delivered, oldest first
+                     */
+                    public List<KitchenTicket> getActiveTickets() {
+                        return getQueueTickets(OrderStatus.active());
+                    }
+
+                    /**
+                     * Fetches the tickets of all orders in the given statuses, for the screen snapshots.
+                     * Unlike getKitchenTickets this is not paged, so a screen never misses an order.
+                     *
+                     * @param statuses the statuses to include
+                     * @return the tickets, oldest first
+                     */
+                    public List<KitchenTicket> getQueueTickets(Set<OrderStatus> statuses) {
+                        List<Long> ids = findAllQueueIds(statuses);
+                        if (ids.isEmpty()) {
+                            return List.of();
+                        }
+                        List<KitchenTicket> tickets = orderRepository.findTicketsByIdIn(ids);
+                        attachLines(ids, tickets, KitchenTicket::id, KitchenTicket::orderItems);
+                        return tickets;
+                    }
+
+                    /**
+                     * Gets the number of orders per kitchen queue page.
+                     *
+                     * @return the page size
+                     */
+                    public int getQueuePageSize() {
+                        return queuePageSize;
+                    }
+
+                    /**
+                     * Fetches one page of the kitchen queue as waiter summaries.
+                     *
+                     * Business operation it performs:
+                     * - Same selection as getOrderQueue, reduced to one row per order (table, status,
+                     *   total and portion count) by a single grouped query.
+                     *
+                     * Transaction behavior:
+                     * - This method performs a read operation and does not modify any data.
+                     *
+                     * @param statuses the statuses to include
+                     * @param page the zero-based page number
+                     * @return the summaries of the page, oldest first
+                     */
+                    public List<OrderSummary> getWaiterSummaries(Set<OrderStatus> statuses, int page) {
+                        List<Long> ids = findQueueIds(statuses, page);
+                        return ids.isEmpty() ? List.of() : orderRepository.findSummariesByIdIn(ids);
+                    }
+
+                    /**
+                     * Reads the IDs of one kitchen queue page.
+                     *
+                     * @param statuses the statuses to include
+                     * @param page the zero-based page number
+                     * @return the order IDs of the page, oldest first
+                     */
+                    private List<Long> findQueueIds(Set<OrderStatus> statuses, int page) {
+                        return orderRepository.findQueueIds(statuses, queueStart(statuses),
+                                PageRequest.of(Math.max(page, 0), queuePageSize)); // Page over IDs so the database applies the limit
+                    }
+
+                    /**
+                     * Reads the IDs of all orders in the given statuses, without paging.
+                     *
+                     * @param statuses the statuses to include
+                     * @return the order IDs, oldest first
+                     */
+                    private List<Long> findAllQueueIds(Set<OrderStatus> statuses) {
+                        return orderRepository.findQueueIds(statuses, queueStart(statuses), Pageable.unpaged());
+                    }
+
+                    /**
+                     * Gets the earliest order time the queue looks at: undelivered orders stay on the
+                     * screens until they are delivered, only delivered ones are limited to the queue window.
+                     *
+                     * @param statuses the statuses to include
+                     * @return the earliest order time to include
+                     */
+                    private LocalDateTime queueStart(Set<OrderStatus> statuses) {
+                        return OrderStatus.active().containsAll(statuses) ? QUEUE_START : LocalDateTime.now().minusHours(queueWindowHours);
+                    }
+
+                    /**
+                     * Loads the lines of the given orders in one query and adds them to their projections.
+                     *
+                     * @param ids the IDs of the orders
+                     * @param views the projections to fill
+                     * @param idOf returns the order ID of a projection
+                     * @param linesOf returns the (mutable) line list of a projection
+                     */
+                    private <T> void attachLines(List<Long> ids, List<T> views,
+                                                 Function<T, Long> idOf, Function<T, List<OrderLineView>> linesOf) {
+                        Map<Long, List<OrderLineView>> linesByOrder = new HashMap<>();
+                        for (OrderLineView line : orderRepository.findLinesByOrderIdIn(ids)) {
+                            linesByOrder.computeIfAbsent(line.orderId(), id -> new ArrayList<>()).add(line);
+                        }
+                        for (T view : views) {
+                            linesOf.apply(view).addAll(linesByOrder.getOrDefault(idOf.apply(view), List.of()));
+                        }
+                    }
+
                     /**
                      * Fetches orders by status.
                      *
@@ -375,7 +668,7 @@ package com.example.Restaurant.services;
                      * - Retrieves order entities from the database based on the specified status.
                      *
                      * Step by step logic:
-                     * 1. Call the findByStatus method of OrderRepository with the given status.
+                     * 1. Fetch every order in the given status; delivered orders only from the queue window.
                      *
                      * Transaction behavior:
                      * - This method performs a read operation and does not modify any data.
@@ -393,9 +686,10 @@ package com.example.Restaurant.services;
                      * - No specific security checks.
                      *
                      * @param status the status of the orders to fetch
-                     * @return a list of order entities with the specified status
+                     * @return a list of order entities with the specified status, oldest first
                      */
-                    public List<Order> getOrdersByStatus(String status) {
-                        return orderRepository.findByStatus(status); // Fetch orders by status from the database
+                    public List<Order> getOrdersByStatus(OrderStatus status) {
+                        List<Long> ids = findAllQueueIds(Set.of(status)); // Fetch orders by status, not just one page
+                        return ids.isEmpty() ? List.of() : orderRepository.findWithItemsByIdIn(ids);
                     }
                 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.Restaurant.services;
 
+    import com.example.Restaurant.model.Food; // Import the Food model class.
     import com.example.Restaurant.model.Recipe; // Import the Recipe model class.
     import com.example.Restaurant.model.RecipeIngredient; // Import the RecipeIngredient model class.
     import com.example.Restaurant.repository.RecipeRepository; // Import the RecipeRepository interface.
@@ -23,9 +24,12 @@ package com.example.Restaurant.services;
      * - Deleting a recipe by ID.
      * - Fetching a recipe by food ID.
      * - Checking if an ingredient is used in any recipes.
+     * - Fetching the foods whose recipe uses an ingredient.
      *
      * Dependencies and component interactions:
      * - RecipeRepository: Used to perform CRUD operations on recipe entities.
+     * - BillOfMaterialsService: Invalidated whenever a recipe is saved or deleted.
+     * - IngredientUsageService: Ingredient-to-recipe index, updated whenever a recipe is saved or deleted.
      *
      * Transaction handling:
      * - Methods that modify data (saveRecipe, deleteRecipe) are annotated with @Transactional to ensure data consistency.
@@ -40,6 +44,12 @@ package com.example.Restaurant.services;
         @Autowired // Injects the RecipeRepository dependency into this service.
         private RecipeRepository recipeRepository;
 
+        @Autowired // Injects the BillOfMaterialsService dependency into this service.
+        private BillOfMaterialsService billOfMaterialsService;
+
+        @Autowired // Injects the IngredientUsageService dependency into this service.
+        private IngredientUsageService ingredientUsageService;
+
         /**
          * Fetches all recipes.
          *
@@ -111,6 +121,7 @@ package com.example.Restaurant.services;
          * 1. Validate the presence of ingredients in the recipe.
          * 2. Set the recipe reference in each ingredient.
          * 3. Save the recipe entity to the database using RecipeRepository.
+         * 4. Invalidate the cached bills of materials and refresh the ingredient usage index.
          *
          * Transaction behavior:
          * - This method is transactional to ensure data consistency.
@@ -137,7 +148,10 @@ package com.example.Restaurant.services;
                     ingredient.setRecipe(recipe); // Set the recipe reference in each ingredient.
                 }
             }
-            return recipeRepository.save(recipe); // Save the recipe entity to the database.
+            Recipe savedRecipe = recipeRepository.save(recipe); // Save the recipe entity to the database.
+            billOfMaterialsService.invalidateAll(); // Stock checks must see the new ingredient list.
+            ingredientUsageService.recipeSaved(savedRecipe.getId()); // Re-index the recipe's ingredients after commit.
+            return savedRecipe;
         }
 
         /**
@@ -148,6 +162,7 @@ package com.example.Restaurant.services;
          *
          * Step by step logic:
          * 1. Call the deleteById method of RecipeRepository with the given ID.
+         * 2. Invalidate the cached bills of materials and drop the recipe from the ingredient usage index.
          *
          * Transaction behavior:
          * - This method is transactional to ensure data consistency.
@@ -169,6 +184,8 @@ package com.example.Restaurant.services;
         @Transactional
         public void deleteRecipe(Long id) {
             recipeRepository.deleteById(id); // Delete the recipe by ID from the database.
+            billOfMaterialsService.invalidateAll(); // The food no longer has a recipe.
+            ingredientUsageService.recipeDeleted(id); // Un-index the recipe's ingredients after commit.
         }
 
         /**
@@ -209,9 +226,8 @@ package com.example.Restaurant.services;
          * - Checks if the specified ingredient is used in any recipe entities.
          *
          * Step by step logic:
-         * 1. Call the getAllRecipes method to get all recipes.
-         * 2. Iterate through the recipes and their ingredients.
-         * 3. Check if the specified ingredient ID matches any ingredient in the recipes.
+         * 1. Look the ingredient up in the in-memory ingredient-to-recipe index.
+         * 2. Fall back to a single exists query while the index is not built yet.
          *
          * Transaction behavior:
          * - This method performs a read operation and does not modify any data.
@@ -223,7 +239,7 @@ package com.example.Restaurant.services;
          * - No specific error handling.
          *
          * Interactions with repositories/other services:
-         * - Interacts with RecipeRepository to fetch all recipe data.
+         * - Interacts with IngredientUsageService to query the index.
          *
          * Security checks:
          * - No specific security checks.
@@ -232,14 +248,38 @@ package com.example.Restaurant.services;
          * @return true if the ingredient is used in any recipes, false otherwise
          */
         public boolean isIngredientUsedInRecipes(Long ingredientId) {
-            List<Recipe> recipes = getAllRecipes(); // Fetch all recipes from the database.
-            for (Recipe recipe : recipes) { // Iterate through the recipes.
-                for (RecipeIngredient recipeIngredient : recipe.getIngredients()) { // Iterate through the ingredients of each recipe.
-                    if (recipeIngredient.getIngredient().getId().equals(ingredientId)) { // Check if the ingredient ID matches.
-                        return true; // Return true if the ingredient is used in any recipe.
-                    }
-                }
-            }
-            return false; // Return false if the ingredient is not used in any recipe.
+            return ingredientUsageService.isUsed(ingredientId); // Indexed lookup instead of scanning every recipe.
+        }
+
+        /**
+         * Fetches the foods whose recipe uses an ingredient.
+         *
+         * Business operation it performs:
+         * - Lists the dishes affected by a change to, or shortage of, the specified ingredient.
+         *
+         * Step by step logic:
+         * 1. Look the ingredient up in the in-memory ingredient-to-recipe index.
+         * 2. Load the foods of the matching recipes.
+         *
+         * Transaction behavior:
+         * - This method performs a read operation and does not modify any data.
+         *
+         * Validation rules:
+         * - No specific validation rules.
+         *
+         * Error handling:
+         * - Returns an empty list if no recipe uses the ingredient.
+         *
+         * Interactions with repositories/other services:
+         * - Interacts with IngredientUsageService to query the index.
+         *
+         * Security checks:
+         * - No specific security checks.
+         *
+         * @param ingredientId the ID of the ingredient
+         * @return the foods whose recipe uses the ingredient
+         */
+        public List<Food> getFoodsUsingIngredient(Long ingredientId) {
+            return ingredientUsageService.getDishesUsing(ingredientId); // Resolve the indexed recipes to their foods.
         }
     }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.config.StompDestinations; // Import the StompDestinations class.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
+import org.springframework.messaging.simp.SimpMessagingTemplate; // Import the SimpMessagingTemplate class.
+import org.springframework.scheduling.annotation.Scheduled; // Import the Scheduled annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+
+import java.util.ArrayList; // Import the ArrayList class.
+import java.util.Collection; // Import the Collection interface.
+import java.util.List; // Import the List interface.
+import java.util.Map; // Import the Map interface.
+import java.util.Set; // Import the Set interface.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+
+/**
+ * Service class broadcasting ingredient stock changes to the kitchen and admin screens.
+ *
+ * Main purpose of this service:
+ * - To keep stock traffic proportional to time rather than to order size: however many
+ *   orders and ingredients change within one window, clients receive one message.
+ *
+ * Business features it provides:
+ * - Collecting changed ingredient IDs and sending their latest stock as a single STOCK_BATCH
+ *   message of (ingredientId, newStock) pairs on the kitchen stock topic.
+ * - Sending a LOW_STOCK_ALERT on the kitchen alerts topic once when an ingredient falls to its
+ *   threshold, and a STOCK_RESTORED once it has risen clearly above it again (hysteresis),
+ *   instead of an alert on every deduction.
+ * - Providing the current stock of all ingredients as the snapshot for resuming screens.
+ *
+ * Dependencies and component interactions:
+ * - StockLedgerService: Source of the current stock, threshold and name of each ingredient.
+ * - EventStreamService: Used to send the batches with sequence numbers.
+ * - SimpMessagingTemplate: Used to send the alerts.
+ * - OrderService and IngredientController: Report the ingredients they changed.
+ * - DomainEventPublisher: Used to collect the changes of a transaction once it has ended.
+ *
+ * Transaction handling:
+ * - A change reported inside a transaction is only collected once the transaction has
+ *   completed, so a batch always carries the committed (or rolled back) ledger values.
+ *
+ * Security/validation considerations:
+ * - Ingredients deleted before the batch is sent are skipped.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class StockBroadcastService {
+
+    @Autowired // Injects the StockLedgerService dependency into this service.
+    private StockLedgerService stockLedgerService;
+
+    @Autowired // Injects the SimpMessagingTemplate dependency into this service.
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired // Injects the EventStreamService dependency into this service.
+    private EventStreamService eventStreamService;
+
+    @Autowired // Injects the DomainEventPublisher dependency into this service.
+    private DomainEventPublisher domainEventPublisher;
+
+    @Value("${restaurant.stock-broadcast.rearm-ratio:0.1}") // Share of the threshold the stock must rise above it before alerting again.
+    private double rearmRatio;
+
+    private final Set<Long> changedIngredients = ConcurrentHashMap.newKeySet(); // Ingredients changed since the last batch.
+    private final Set<Long> lowStockAlerted = ConcurrentHashMap.newKeySet(); // Ingredients whose low-stock alert was sent.
+
+    /**
+     * Reports ingredients whose stock has changed.
+     *
+     * @param ingredientIds the IDs of the changed ingredients
+     */
+    public void stockChanged(Collection<Long> ingredientIds) {
+        if (ingredientIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(ingredientIds);
+        domainEventPublisher.publishAfterCompletion(() -> changedIngredients.addAll(ids)); // After a rollback the restored values are broadcast.
+    }
+
+    /**
+     * Reports an ingredient whose stock has changed.
+     *
+     * @param ingredientId the ID of the changed ingredient
+     */
+    public void stockChanged(Long ingredientId) {
+        stockChanged(List.of(ingredientId));
+    }
+
+    /**
+     * Sends the latest stock of all changed ingredients.
+     *
+     * Business operation it performs:
+     * - Sends one STOCK_BATCH message with the current ledger stock of every ingredient
+     *   changed since the last run, and the alerts of ingredients crossing their threshold.
+     *
+     * Step by step logic:
+     * 1. Take the changed ingredient IDs.
+     * 2. Read the committed stock and threshold of each one from the ledger.
+     * 3. Alert ingredients at or below the threshold that were not alerted yet.
+     * 4. Re-arm alerted ingredients whose stock rose above threshold * (1 + rearm-ratio).
+     * 5. Send the batch, then the alerts.
+     *
+     * Transaction behavior:
+     * - Reads the in-memory ledger only, no transaction is involved.
+     */
+    @Scheduled(fixedDelayString = "${restaurant.stock-broadcast.window-ms:250}")
+    public void flush() {
+        if (changedIngredients.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> updates = new ArrayList<>();
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        for (Long ingredientId : List.copyOf(changedIngredients)) {
+            changedIngredients.remove(ingredientId); // A change arriving after this is sent in the next batch.
+            Double newStock = stockLedgerService.getCommittedStock(ingredientId); // Without other orders' reservations in flight.
+            Double threshold = stockLedgerService.getThreshold(ingredientId);
+            if (newStock == null || threshold == null) { // Deleted meanwhile.
+                lowStockAlerted.remove(ingredientId);
+                continue;
+            }
+            updates.add(Map.of("ingredientId", ingredientId, "newStock", newStock));
+
+            if (newStock <= threshold) {
+                if (lowStockAlerted.add(ingredientId)) {
+                    alerts.add(alert("LOW_STOCK_ALERT", ingredientId, newStock, threshold));
+                }
+            } else if (newStock > threshold * (1 + rearmRatio) && lowStockAlerted.remove(ingredientId)) {
+                alerts.add(alert("STOCK_RESTORED", ingredientId, newStock, threshold));
+            }
+        }
+        if (!updates.isEmpty()) {
+            eventStreamService.publish(StompDestinations.KITCHEN_STOCK, stockBatch(updates)); // Sequenced, so screens can resume.
+        }
+        alerts.forEach(alert -> messagingTemplate.convertAndSend(StompDestinations.KITCHEN_ALERTS, alert)); // After the batch they refer to.
+    }
+
+    /**
+     * Gets the committed stock of every ingredient, as the snapshot of the kitchen stock stream.
+     *
+     * @return a STOCK_BATCH message with all ingredients
+     */
+    public Map<String, Object> getStockSnapshot() {
+        List<Map<String, Object>> updates = new ArrayList<>();
+        stockLedgerService.getCommittedStockLevels().forEach((ingredientId, stock) ->
+                updates.add(Map.of("ingredientId", ingredientId, "newStock", stock)));
+        return stockBatch(updates);
+    }
+
+    private static Map<String, Object> stockBatch(List<Map<String, Object>> updates) {
+        return Map.of(
+                "type", "STOCK_BATCH",
+                "updates", updates
+        );
+    }
+
+    private Map<String, Object> alert(String type, Long ingredientId, double currentStock, double threshold) {
+        String name = stockLedgerService.getName(ingredientId); // Null for an unnamed ingredient or one deleted meanwhile.
+        return Map.of(
+                "type", type,
+                "ingredient", Map.of(
+                        "id", ingredientId,
+                        "name", name != null ? name : "Ingredient #" + ingredientId,
+                        "currentStock", currentStock,
+                        "threshold", threshold
+                )
+        );
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.Ingredient; // Import the Ingredient model class.
+import com.example.Restaurant.repository.IngredientRepository; // Import the IngredientRepository interface.
+import jakarta.annotation.PreDestroy; // Import the PreDestroy annotation.
+import org.slf4j.Logger; // Import the Logger interface.
+import org.slf4j.LoggerFactory; // Import the LoggerFactory class.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.boot.context.event.ApplicationReadyEvent; // Import the ApplicationReadyEvent class.
+import org.springframework.context.event.EventListener; // Import the EventListener annotation.
+import org.springframework.scheduling.annotation.Scheduled; // Import the Scheduled annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.transaction.support.TransactionSynchronization; // Import the TransactionSynchronization interface.
+import org.springframework.transaction.support.TransactionSynchronizationManager; // Import the TransactionSynchronizationManager class.
+import org.springframework.transaction.support.TransactionTemplate; // Import the TransactionTemplate class.
+
+import java.util.HashMap; // Import the HashMap class.
+import java.util.HashSet; // Import the HashSet class.
+import java.util.List; // Import the List interface.
+import java.util.Map; // Import the Map interface.
+import java.util.Optional; // Import the Optional class.
+import java.util.Set; // Import the Set interface.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+
+/**
+ * Service class holding the authoritative in-memory stock of every ingredient.
+ *
+ * Main purpose of this service:
+ * - To check and deduct the ingredients of a whole order atomically, so two orders
+ *   marked Ready at the same time can never both pass the check and oversell stock.
+ *
+ * Business features it provides:
+ * - Loading the current stock of all ingredients at startup.
+ * - Reserving (check-and-deduct) a set of ingredient amounts all-or-nothing.
+ * - Releasing a reservation when the surrounding transaction rolls back.
+ * - Reporting the committed stock, which leaves out reservations of transactions still running.
+ * - Tracking absolute stock changes made through IngredientService.
+ * - Write-behind flushing of accumulated deductions to the database in one transaction.
+ *
+ * Dependencies and component interactions:
+ * - IngredientRepository: Used to load stock and to write back deductions.
+ * - TransactionTemplate: Used to run each flush in a single transaction.
+ *
+ * Transaction handling:
+ * - Reservations do not touch the database; deductions are flushed every
+ *   restaurant.stock.flush-interval-ms milliseconds and on shutdown.
+ * - Saved and deleted ingredients are applied to the ledger once their transaction commits.
+ *
+ * Security/validation considerations:
+ * - All mutations of the ledger happen under one lock; stock reads are lock-free.
+ * - The lock is never held while waiting for the database, so a blocked write-back
+ *   cannot stall reservations.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class StockLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+    @Autowired // Injects the IngredientRepository dependency into this service.
+    private IngredientRepository ingredientRepository;
+
+    @Autowired // Injects the TransactionTemplate dependency into this service.
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Double> stock = new ConcurrentHashMap<>(); // Current stock per ingredient ID.
+    private final Map<Long, Double> thresholds = new ConcurrentHashMap<>(); // Low-stock threshold per ingredient ID.
+    private final Map<Long, String> names = new ConcurrentHashMap<>(); // Display name per ingredient ID, for alerts.
+    private final Map<Long, Double> pendingDeductions = new HashMap<>(); // Deductions not yet written back, guarded by lock.
+    private final Set<Long> flushing = new HashSet<>(); // Ingredients written by the running flush, guarded by lock.
+    private final Map<Long, Double> uncommittedReservations = new HashMap<>(); // Reserved by running transactions, guarded by lock.
+    private final Set<Long> staleIngredients = new HashSet<>(); // Ingredients whose stock the next flush must set absolutely, guarded by lock.
+    private final Object lock = new Object();
+
+    /**
+     * Describes the first ingredient that could not cover a requested reservation.
+     */
+    public static final class Shortfall {
+        private final Long ingredientId;
+        private final double required;
+        private final double available;
+
+        Shortfall(Long ingredientId, double required, double available) {
+            this.ingredientId = ingredientId;
+            this.required = required;
+            this.available = available;
+        }
+
+        public Long getIngredientId() {
+            return ingredientId;
+        }
+
+        public double getRequired() {
+            return required;
+        }
+
+        public double getAvailable() {
+            return available;
+        }
+    }
+
+    /**
+     * Loads the current stock of all ingredients once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStock() {
+        List<Ingredient> ingredients = ingredientRepository.findAll(); // One query for the whole ledger, outside the lock.
+        synchronized (lock) {
+            ingredients.forEach(this::putIfUntracked);
+        }
+    }
+
+    /**
+     * Records the stock of an ingredient that was just written to the database.
+     *
+     * Business operation it performs:
+     * - Once the saving transaction commits, replaces the ledger value with the saved
+     *   absolute stock and discards any pending deduction, since the saved value already
+     *   supersedes it. Nothing changes if the transaction rolls back.
+     * - If a flush is writing a deduction of the same ingredient at that moment, the order
+     *   of the two database writes is unknown, so the next flush sets the stock absolutely.
+     *
+     * @param ingredient the saved ingredient
+     */
+    public void track(Ingredient ingredient) {
+        if (ingredient.getId() == null) {
+            return;
+        }
+        Ingredient saved = copyOf(ingredient); // The values as saved, should the entity change before commit.
+        afterCommit(() -> {
+            synchronized (lock) {
+                pendingDeductions.remove(saved.getId());
+                if (flushing.contains(saved.getId())) {
+                    staleIngredients.add(saved.getId());
+                }
+                put(saved);
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted ingredient from the ledger once the deleting transaction commits.
+     *
+     * @param ingredientId the ID of the deleted ingredient
+     */
+    public void remove(Long ingredientId) {
+        afterCommit(() -> {
+            synchronized (lock) {
+                pendingDeductions.remove(ingredientId);
+                staleIngredients.remove(ingredientId);
+                stock.remove(ingredientId);
+                thresholds.remove(ingredientId);
+                names.remove(ingredientId);
+            }
+        });
+    }
+
+    /**
+     * Reserves the given ingredient amounts all-or-nothing.
+     *
+     * Business operation it performs:
+     * - Checks every requested amount against the ledger and, only if all are
+     *   available, deducts them and queues the deductions for write-back.
+     *
+     * Step by step logic:
+     * 1. Load ingredients created after startup and not tracked yet, before taking the lock.
+     * 2. Acquire the ledger lock.
+     * 3. Check every requirement; stop at the first shortfall without deducting anything.
+     * 4. Deduct every requirement and add it to the pending deductions.
+     * 5. If a transaction is active, count the reservation as uncommitted until it completes,
+     *    and release it again should the transaction roll back.
+     *
+     * Transaction behavior:
+     * - Does not touch the database; participates in the caller's transaction only
+     *   to undo the reservation on rollback.
+     *
+     * @param requirements the amount required per ingredient ID
+     * @return empty if the reservation succeeded, otherwise the first ingredient that was short
+     */
+    public Optional<Shortfall> reserve(Map<Long, Double> requirements) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        List<Long> untracked = requirements.keySet().stream().filter(ingredientId -> !stock.containsKey(ingredientId)).toList();
+        List<Ingredient> loaded = untracked.isEmpty() ? List.of() : ingredientRepository.findAllById(untracked);
+        synchronized (lock) {
+            loaded.forEach(this::putIfUntracked);
+            for (Map.Entry<Long, Double> requirement : requirements.entrySet()) { // Check everything before changing anything.
+                double available = stock.getOrDefault(requirement.getKey(), 0.0); // Unknown ingredients have no stock.
+                if (available < requirement.getValue()) {
+                    return Optional.of(new Shortfall(requirement.getKey(), requirement.getValue(), available));
+                }
+            }
+            requirements.forEach(this::deduct);
+            if (inTransaction) {
+                requirements.forEach((ingredientId, amount) -> uncommittedReservations.merge(ingredientId, amount, Double::sum));
+            }
+        }
+
+        if (inTransaction) { // Give the stock back if the order update fails.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (lock) {
+                        requirements.forEach((ingredientId, amount) -> uncommittedReservations.computeIfPresent(ingredientId,
+                                (id, reserved) -> reserved - amount > 1e-9 ? reserved - amount : null));
+                        if (status == STATUS_ROLLED_BACK) {
+                            release(requirements);
+                        }
+                    }
+                }
+            });
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Checks whether the given ingredient amounts are currently available, without reserving them.
+     * The answer is advisory: another order may take the stock before a later reserve call.
+     *
+     * @param requirements the amount required per ingredient ID
+     * @return empty if every amount is available, otherwise the first ingredient that is short
+     */
+    public Optional<Shortfall> check(Map<Long, Double> requirements) {
+        for (Map.Entry<Long, Double> requirement : requirements.entrySet()) {
+            Double available = stock.get(requirement.getKey());
+            double current = available != null ? available : 0.0;
+            if (current < requirement.getValue()) {
+                return Optional.of(new Shortfall(requirement.getKey(), requirement.getValue(), current));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns previously reserved ingredient amounts to the ledger.
+     *
+     * @param requirements the amount to return per ingredient ID
+     */
+    public void release(Map<Long, Double> requirements) {
+        synchronized (lock) {
+            requirements.forEach((ingredientId, amount) -> {
+                if (stock.containsKey(ingredientId)) { // Skip ingredients deleted in the meantime.
+                    deduct(ingredientId, -amount);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the current stock of an ingredient according to the ledger.
+     *
+     * @param ingredientId the ID of the ingredient
+     * @return the current stock, or null if the ingredient is unknown
+     */
+    public Double getStock(Long ingredientId) {
+        return stock.get(ingredientId);
+    }
+
+    /**
+     * Gets the committed stock of an ingredient: the ledger value without the reservations
+     * of transactions that have not completed yet. This is what other users may be shown.
+     *
+     * @param ingredientId the ID of the ingredient
+     * @return the committed stock, or null if the ingredient is unknown
+     */
+    public Double getCommittedStock(Long ingredientId) {
+        synchronized (lock) {
+            Double current = stock.get(ingredientId);
+            return current != null ? current + uncommittedReservations.getOrDefault(ingredientId, 0.0) : null;
+        }
+    }
+
+    /**
+     * Gets the committed stock of all ingredients (see getCommittedStock).
+     *
+     * @return the committed stock per ingredient ID
+     */
+    public Map<Long, Double> getCommittedStockLevels() {
+        synchronized (lock) {
+            Map<Long, Double> levels = new HashMap<>(stock);
+            uncommittedReservations.forEach((ingredientId, reserved) -> levels.computeIfPresent(ingredientId, (id, current) -> current + reserved));
+            return levels;
+        }
+    }
+
+    /**
+     * Gets the low-stock threshold of all ingredients according to the ledger.
+     *
+     * @return the threshold per ingredient ID
+     */
+    public Map<Long, Double> getThresholds() {
+        return new HashMap<>(thresholds);
+    }
+
+    /**
+     * Gets the low-stock threshold of an ingredient according to the ledger.
+     *
+     * @param ingredientId the ID of the ingredient
+     * @return the threshold, or null if the ingredient is unknown
+     */
+    public Double getThreshold(Long ingredientId) {
+        return thresholds.get(ingredientId);
+    }
+
+    /**
+     * Gets the name of an ingredient according to the ledger.
+     *
+     * @param ingredientId the ID of the ingredient
+     * @return the ingredient name, or null if the ingredient is unknown
+     */
+    public String getName(Long ingredientId) {
+        return names.get(ingredientId);
+    }
+
+    /**
+     * Writes all pending deductions back to the database.
+     *
+     * Business operation it performs:
+     * - Applies every accumulated deduction with one UPDATE per ingredient inside a
+     *   single transaction, regardless of how many orders contributed to it.
+     * - Sets the stock of ingredients saved during an earlier flush to the ledger value.
+     *
+     * Step by step logic:
+     * 1. Under the ledger lock, take the pending deductions and stale ingredients as a batch.
+     * 2. Write the batch without holding the lock, so reservations continue meanwhile.
+     * 3. On failure, merge the batch back, except deductions superseded by a save in the meantime.
+     *
+     * Transaction behavior:
+     * - Runs in its own transaction; on failure the batch is retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${restaurant.stock.flush-interval-ms:2000}")
+    public void flush() {
+        Map<Long, Double> deductions;
+        Map<Long, Double> absolutes = new HashMap<>();
+        synchronized (lock) {
+            if (pendingDeductions.isEmpty() && staleIngredients.isEmpty()) {
+                return;
+            }
+            deductions = new HashMap<>(pendingDeductions);
+            pendingDeductions.clear();
+            for (Long ingredientId : staleIngredients) {
+                deductions.remove(ingredientId); // Already part of the ledger value.
+                Double current = stock.get(ingredientId);
+                if (current != null) {
+                    absolutes.put(ingredientId, current);
+                }
+            }
+            staleIngredients.clear();
+            flushing.addAll(deductions.keySet());
+            flushing.addAll(absolutes.keySet());
+        }
+
+        boolean written = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deductions.forEach(ingredientRepository::deductStock);
+                absolutes.forEach(ingredientRepository::setStock);
+            });
+            written = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not flush {} stock changes, will retry", deductions.size() + absolutes.size(), e);
+        } finally {
+            synchronized (lock) {
+                if (!written) {
+                    deductions.forEach((ingredientId, amount) -> {
+                        if (stock.containsKey(ingredientId) && !staleIngredients.contains(ingredientId)) { // Not deleted or saved since.
+                            pendingDeductions.merge(ingredientId, amount, Double::sum);
+                        }
+                    });
+                    absolutes.keySet().stream().filter(stock::containsKey).forEach(staleIngredients::add);
+                }
+                flushing.clear();
+            }
+        }
+    }
+
+    /**
+     * Flushes pending deductions before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Ingredient copyOf(Ingredient ingredient) {
+        Ingredient copy = new Ingredient();
+        copy.setId(ingredient.getId());
+        copy.setName(ingredient.getName());
+        copy.setCurrentStock(ingredient.getCurrentStock());
+        copy.setThreshold(ingredient.getThreshold());
+        return copy;
+    }
+
+    private void deduct(Long ingredientId, Double amount) {
+        stock.merge(ingredientId, -amount, Double::sum);
+        pendingDeductions.merge(ingredientId, amount, Double::sum);
+    }
+
+    private void putIfUntracked(Ingredient ingredient) {
+        if (!stock.containsKey(ingredient.getId())) { // A value tracked meanwhile is newer than the one loaded.
+            put(ingredient);
+        }
+    }
+
+    private void put(Ingredient ingredient) {
+        stock.put(ingredient.getId(), ingredient.getCurrentStock() != null ? ingredient.getCurrentStock() : 0.0);
+        thresholds.put(ingredient.getId(), ingredient.getThreshold() != null ? ingredient.getThreshold() : 0.0);
+        if (ingredient.getName() != null) {
+            names.put(ingredient.getId(), ingredient.getName());
+        }
+    }
+}
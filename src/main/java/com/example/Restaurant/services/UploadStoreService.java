@@ -0,0 +1,204 @@
+package com.example.Restaurant.services;
+
+import jakarta.annotation.PostConstruct; // Import the PostConstruct annotation.
+import org.slf4j.Logger; // Import the Logger interface.
+import org.slf4j.LoggerFactory; // Import the LoggerFactory class.
+import org.springframework.beans.factory.annotation.Value; // Import the Value annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+
+import java.io.IOException; // Import the IOException class.
+import java.nio.file.DirectoryStream; // Import the DirectoryStream interface.
+import java.nio.file.Files; // Import the Files class.
+import java.nio.file.Path; // Import the Path interface.
+import java.util.Iterator; // Import the Iterator interface.
+import java.util.LinkedHashMap; // Import the LinkedHashMap class.
+import java.util.Map; // Import the Map interface.
+import java.util.Optional; // Import the Optional class.
+import java.util.concurrent.atomic.LongAdder; // Import the LongAdder class.
+import java.util.regex.Pattern; // Import the Pattern class.
+
+/**
+ * Service class owning the directory uploaded food images are stored in.
+ *
+ * Main purpose of this service:
+ * - To keep uploads out of the source tree (restaurant.uploads.dir, by default next to the
+ *   database in ./data) and to serve the most requested small images from memory.
+ *
+ * Business features it provides:
+ * - Resolving a requested file name to a file in the store, rejecting anything that could
+ *   escape the directory.
+ * - Telling content-hashed names, whose content never changes, from legacy names.
+ * - Keeping the hottest small files (thumbnails) in a bounded least-recently-used cache.
+ * - Copying images from the old location under src/main/resources once at startup.
+ *
+ * Dependencies and component interactions:
+ * - ImageService: Writes originals and variants into the store and evicts deleted files.
+ * - UploadController: Serves files from the store.
+ *
+ * Transaction handling:
+ * - Not applicable; the store is a plain directory.
+ *
+ * Security/validation considerations:
+ * - Names containing path separators or starting with a dot are never resolved.
+ * - The memory cache is bounded in total bytes (restaurant.uploads.hot-cache-max-bytes) and
+ *   only holds files up to restaurant.uploads.hot-cache-max-file-bytes.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class UploadStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadStoreService.class);
+
+    private static final Pattern HASHED_NAME = Pattern.compile("[0-9a-f]{32}(-\\d+)?\\.[a-z]+"); // Originals and their variants.
+
+    @Value("${restaurant.uploads.dir:data/uploads}") // Injects the upload directory.
+    private Path directory;
+
+    @Value("${restaurant.uploads.legacy-dir:src/main/resources/static/uploads}") // Injects the directory uploads were stored in before.
+    private Path legacyDirectory;
+
+    @Value("${restaurant.uploads.hot-cache-max-bytes:33554432}") // Injects the memory budget of the hot file cache.
+    private long hotCacheMaxBytes;
+
+    @Value("${restaurant.uploads.hot-cache-max-file-bytes:262144}") // Injects the size of the largest file kept in memory.
+    private long hotCacheMaxFileBytes;
+
+    private final Map<String, CachedFile> hotFiles = new LinkedHashMap<>(16, 0.75f, true); // Access order, guarded by itself.
+    private long hotBytes; // Total size of hotFiles, guarded by hotFiles.
+
+    private final LongAdder hotHits = new LongAdder();
+    private final LongAdder hotMisses = new LongAdder();
+
+    /**
+     * A file held in memory, with the modification time it was read at.
+     */
+    private record CachedFile(byte[] content, long lastModified) {
+    }
+
+    /**
+     * Creates the store and copies over the images from the legacy directory.
+     * Files already in the store are left untouched, so this runs only once in effect.
+     *
+     * @throws IOException if the store cannot be created
+     */
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        if (!Files.isDirectory(legacyDirectory) || Files.isSameFile(legacyDirectory, directory)) {
+            return;
+        }
+        int copied = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(legacyDirectory)) {
+            for (Path file : files) {
+                Path target = directory.resolve(file.getFileName());
+                if (Files.isRegularFile(file) && !Files.exists(target)) {
+                    Files.copy(file, target);
+                    copied++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not copy uploads from {} to {}", legacyDirectory, directory, e);
+        }
+        if (copied > 0) {
+            log.info("Copied {} uploads from {} to {}", copied, legacyDirectory, directory);
+        }
+    }
+
+    /**
+     * Gets the directory of the store.
+     *
+     * @return the upload directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Resolves a file name to a file in the store.
+     *
+     * @param name the requested file name
+     * @return an Optional containing the file, or an empty Optional if the name is invalid or no such file exists
+     */
+    public Optional<Path> resolve(String name) {
+        if (name == null || name.isEmpty() || name.startsWith(".")
+                || name.contains("/") || name.contains("\\") || name.indexOf('\0') >= 0) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Checks if a file name is content-hashed, so the file behind it never changes.
+     *
+     * @param name the file name
+     * @return true for hashed originals and their variants, false for legacy names
+     */
+    public boolean isImmutable(String name) {
+        return HASHED_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Gets the content of a small file from memory, reading and caching it on a miss.
+     *
+     * @param name the file name
+     * @param file the resolved file
+     * @param size the size of the file in bytes
+     * @param lastModified the modification time of the file
+     * @return the file content, or null if the file is too large to be kept in memory
+     * @throws IOException if the file cannot be read
+     */
+    public byte[] getHotContent(String name, Path file, long size, long lastModified) throws IOException {
+        if (size > hotCacheMaxFileBytes) {
+            return null;
+        }
+        synchronized (hotFiles) {
+            CachedFile cached = hotFiles.get(name);
+            if (cached != null && cached.lastModified() == lastModified) {
+                hotHits.increment();
+                return cached.content();
+            }
+        }
+        hotMisses.increment();
+        byte[] content = Files.readAllBytes(file); // Read outside the lock.
+        synchronized (hotFiles) {
+            CachedFile previous = hotFiles.put(name, new CachedFile(content, lastModified));
+            hotBytes += content.length - (previous == null ? 0 : previous.content().length);
+            Iterator<CachedFile> eldest = hotFiles.values().iterator(); // Least recently used first.
+            while (hotBytes > hotCacheMaxBytes && eldest.hasNext()) {
+                hotBytes -= eldest.next().content().length;
+                eldest.remove();
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Drops a deleted file from memory.
+     *
+     * @param name the file name
+     */
+    public void evict(String name) {
+        synchronized (hotFiles) {
+            CachedFile removed = hotFiles.remove(name);
+            if (removed != null) {
+                hotBytes -= removed.content().length;
+            }
+        }
+    }
+
+    /**
+     * Gets the hit and miss counters and current size of the hot file cache.
+     *
+     * @return the statistics keyed by name, e.g. "hotHits" or "hotBytes"
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hotHits", hotHits.sum());
+        stats.put("hotMisses", hotMisses.sum());
+        synchronized (hotFiles) {
+            stats.put("hotFiles", hotFiles.size());
+            stats.put("hotBytes", hotBytes);
+        }
+        return stats;
+    }
+}
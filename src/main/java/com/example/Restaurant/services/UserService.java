@@ -5,8 +5,8 @@ package com.example.Restaurant.services;
          import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
          import org.springframework.security.crypto.password.PasswordEncoder; // Import the PasswordEncoder interface.
          import org.springframework.stereotype.Service; // Import the Service annotation.
+         import org.springframework.transaction.annotation.Propagation; // Import the Propagation enum.
          import org.springframework.transaction.annotation.Transactional; // Import the Transactional annotation.
-         import java.time.LocalDateTime; // Import the LocalDateTime class.
          import java.util.List; // Import the List interface.
          import java.util.Optional; // Import the Optional class.
 
@@ -31,9 +31,12 @@ package com.example.Restaurant.services;
           * Dependencies and component interactions:
           * - UserRepository: Used to perform CRUD operations on user entities.
           * - PasswordEncoder: Used to encode user passwords.
+          * - LastLoginService: Queues last login times and writes them in batches.
+          * - CustomUserDetailsService: Its login cache is evicted whenever a user's password, role or status changes.
           *
           * Transaction handling:
-          * - The class is annotated with @Transactional to ensure data consistency for all methods.
+          * - The class is annotated with @Transactional to ensure data consistency for all methods,
+          *   except updateLastLogin, which only queues the login.
           *
           * Security/validation considerations:
           * - Ensures that usernames are unique.
@@ -50,6 +53,12 @@ package com.example.Restaurant.services;
              @Autowired // Injects the PasswordEncoder dependency into this service.
              private PasswordEncoder passwordEncoder;
 
+             @Autowired // Injects the CustomUserDetailsService dependency into this service.
+             private CustomUserDetailsService userDetailsService;
+
+             @Autowired // Injects the LastLoginService dependency into this service.
+             private LastLoginService lastLoginService;
+
              /**
               * Creates a new user.
               *
@@ -157,7 +166,8 @@ package com.example.Restaurant.services;
               * Step by step logic:
               * 1. Fetch the existing user by ID.
               * 2. Encode the new password if provided.
-              * 3. Save the updated user entity to the database.
+              * 3. Evict the old and new username from the login cache.
+              * 4. Save the updated user entity to the database.
               *
               * Transaction behavior:
               * - This method is transactional to ensure data consistency.
@@ -187,6 +197,8 @@ package com.example.Restaurant.services;
                      user.setPassword(existingUser.getPassword()); // Keep the existing password if no new password is provided.
                  }
 
+                 userDetailsService.evict(existingUser.getUsername()); // The username itself may change, so evict both.
+                 userDetailsService.evict(user.getUsername());
                  return userRepository.save(user); // Save the updated user entity to the database.
              }
 
@@ -200,6 +212,7 @@ package com.example.Restaurant.services;
               * 1. Fetch the user by ID.
               * 2. Toggle the active status.
               * 3. Save the updated user entity to the database.
+              * 4. Evict the user from the login cache.
               *
               * Transaction behavior:
               * - This method is transactional to ensure data consistency.
@@ -223,41 +236,39 @@ package com.example.Restaurant.services;
                          .orElseThrow(() -> new RuntimeException("User not found")); // Throw an exception if the user is not found.
                  user.setIsActive(!user.getIsActive()); // Toggle the active status.
                  userRepository.save(user); // Save the updated user entity to the database.
+                 userDetailsService.evict(user.getUsername()); // Make the change effective on the next login.
              }
 
              /**
               * Updates the last login time of a user.
               *
               * Business operation it performs:
-              * - Updates the last login time of a user entity in the database.
+              * - Records the login time of a user without writing to the database on the login request.
               *
               * Step by step logic:
-              * 1. Fetch the user by username.
-              * 2. Update the last login time.
-              * 3. Save the updated user entity to the database.
+              * 1. Queue the current time for the user in LastLoginService, replacing any earlier queued login.
+              * 2. LastLoginService writes the queued times in one batch every few seconds.
               *
               * Transaction behavior:
-              * - This method is transactional to ensure data consistency.
+              * - Runs outside any transaction; the background writer uses its own.
               *
               * Validation rules:
-              * - Ensures that the user exists before updating the last login time.
+              * - Unknown usernames are ignored when the batch is written.
               *
               * Error handling:
-              * - No specific error handling.
+              * - No specific error handling; failed batches are retried by LastLoginService.
               *
               * Interactions with repositories/other services:
-              * - Interacts with UserRepository to fetch and save the user entity.
+              * - Interacts with LastLoginService to queue the login.
               *
               * Security checks:
               * - No specific security checks.
               *
               * @param username the username of the user to update last login time
               */
+             @Transactional(propagation = Propagation.NOT_SUPPORTED) // No database access, so no transaction or connection is needed.
              public void updateLastLogin(String username) {
-                 userRepository.findByUsername(username).ifPresent(user -> { // Fetch the user by username.
-                     user.setLastLogin(LocalDateTime.now()); // Update the last login time.
-                     userRepository.save(user); // Save the updated user entity to the database.
-                 });
+                 lastLoginService.record(username); // Queue the login for the background writer.
              }
 
              /**
@@ -331,6 +342,7 @@ package com.example.Restaurant.services;
               * 1. Fetch the user by ID.
               * 2. Set the active status to false.
               * 3. Save the updated user entity to the database.
+              * 4. Evict the user from the login cache.
               *
               * Transaction behavior:
               * - This method is transactional to ensure data consistency.
@@ -354,6 +366,7 @@ package com.example.Restaurant.services;
                          .orElseThrow(() -> new RuntimeException("User not found")); // Throw an exception if the user is not found.
                  user.setIsActive(false); // Set the active status to false.
                  userRepository.save(user); // Save the updated user entity to the database.
+                 userDetailsService.evict(user.getUsername()); // Lock the user out on the next login.
              }
 
              /**
@@ -366,6 +379,7 @@ package com.example.Restaurant.services;
               * 1. Fetch the user by ID.
               * 2. Set the active status to true.
               * 3. Save the updated user entity to the database.
+              * 4. Evict the user from the login cache.
               *
               * Transaction behavior:
               * - This method is transactional to ensure data consistency.
@@ -389,5 +403,6 @@ package com.example.Restaurant.services;
                          .orElseThrow(() -> new RuntimeException("User not found")); // Throw an exception if the user is not found.
                  user.setIsActive(true); // Set the active status to true.
                  userRepository.save(user); // Save the updated user entity to the database.
+                 userDetailsService.evict(user.getUsername()); // Let the user in on the next login.
              }
          }
\ No newline at end of file
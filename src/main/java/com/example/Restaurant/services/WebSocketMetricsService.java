@@ -0,0 +1,114 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.config.SlowConsumerSessionDecorator; // Import the SlowConsumerSessionDecorator class.
+import org.springframework.beans.factory.annotation.Autowired; // Import the Autowired annotation.
+import org.springframework.context.annotation.Lazy; // Import the Lazy annotation.
+import org.springframework.stereotype.Service; // Import the Service annotation.
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats; // Import the WebSocketMessageBrokerStats class.
+
+import java.security.Principal; // Import the Principal interface.
+import java.util.ArrayList; // Import the ArrayList class.
+import java.util.Comparator; // Import the Comparator interface.
+import java.util.LinkedHashMap; // Import the LinkedHashMap class.
+import java.util.List; // Import the List interface.
+import java.util.Map; // Import the Map interface.
+import java.util.concurrent.ConcurrentHashMap; // Import the ConcurrentHashMap class.
+import java.util.concurrent.atomic.LongAdder; // Import the LongAdder class.
+
+/**
+ * Service class tracking the open WebSocket sessions and how far each one is behind.
+ *
+ * Main purpose of this service:
+ * - To show which tablets are slow consumers before they affect anybody else.
+ *
+ * Business features it provides:
+ * - Registering and unregistering the sessions opened on "/ws-orders".
+ * - Reporting per session the queue depth (messages and bytes), how long the current send has
+ *   been blocked, and how many messages were sent and dropped.
+ * - Reporting the totals of closed sessions and Spring's broker and channel pool statistics.
+ *
+ * Dependencies and component interactions:
+ * - WebSocketBrokerConfig: Registers every session decorated with SlowConsumerSessionDecorator.
+ * - WebSocketMessageBrokerStats: Spring's summary of sessions, channel pools and the broker.
+ *
+ * Transaction handling:
+ * - This service does not access the database and does not handle transactions.
+ *
+ * Security/validation considerations:
+ * - Session statistics include the authenticated user name, if any, but no message content.
+ */
+@Service // Marks this class as a Spring service component, making it eligible for component scanning and dependency injection.
+public class WebSocketMetricsService {
+
+    @Autowired // Injects Spring's WebSocket statistics; lazy because they depend on the broker configuration.
+    @Lazy
+    private WebSocketMessageBrokerStats brokerStats;
+
+    private final Map<String, SlowConsumerSessionDecorator> sessions = new ConcurrentHashMap<>(); // Open sessions by ID.
+    private final LongAdder closedSent = new LongAdder();
+    private final LongAdder closedDropped = new LongAdder();
+
+    /**
+     * Starts tracking a session.
+     *
+     * @param session the decorated session
+     */
+    public void register(SlowConsumerSessionDecorator session) {
+        sessions.put(session.getId(), session);
+    }
+
+    /**
+     * Stops tracking a closed session, keeping its counters in the totals.
+     *
+     * @param sessionId the ID of the closed session
+     */
+    public void unregister(String sessionId) {
+        SlowConsumerSessionDecorator session = sessions.remove(sessionId);
+        if (session != null) {
+            closedSent.add(session.getSentCount());
+            closedDropped.add(session.getDroppedCount());
+        }
+    }
+
+    /**
+     * Gets the statistics of every open session, deepest queue first, and the overall totals.
+     *
+     * @return the statistics keyed by name, e.g. "sessions" or "broker"
+     */
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> perSession = new ArrayList<>();
+        long sent = closedSent.sum();
+        long dropped = closedDropped.sum();
+        List<SlowConsumerSessionDecorator> open = new ArrayList<>(sessions.values());
+        open.sort(Comparator.comparingInt(SlowConsumerSessionDecorator::getBufferSize).reversed());
+        for (SlowConsumerSessionDecorator session : open) {
+            Principal principal = session.getPrincipal();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("id", session.getId());
+            stats.put("user", principal != null ? principal.getName() : null);
+            stats.put("remoteAddress", String.valueOf(session.getRemoteAddress()));
+            stats.put("queueDepth", session.getQueueDepth());
+            stats.put("queueBytes", session.getBufferSize());
+            stats.put("sendBlockedMs", session.getTimeSinceSendStarted());
+            stats.put("sent", session.getSentCount());
+            stats.put("dropped", session.getDroppedCount());
+            stats.put("policy", session.getPolicy());
+            perSession.add(stats);
+            sent += session.getSentCount();
+            dropped += session.getDroppedCount();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("openSessions", open.size());
+        result.put("totalSent", sent);
+        result.put("totalDropped", dropped);
+        result.put("sessions", perSession);
+        result.put("broker", Map.of(
+                "webSocketSessions", brokerStats.getWebSocketSessionStatsInfo(),
+                "stomp", brokerStats.getStompSubProtocolStatsInfo(),
+                "broker", brokerStats.getStompBrokerRelayStatsInfo(),
+                "inboundChannel", brokerStats.getClientInboundExecutorStatsInfo(),
+                "outboundChannel", brokerStats.getClientOutboundExecutorStatsInfo(),
+                "sockJsScheduler", brokerStats.getSockJsTaskSchedulerStatsInfo()));
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.Restaurant.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Unit tests for SlowConsumerSessionDecorator: coalescing of sequenced events behind a slow
+ * client, and disconnecting when the buffer cannot be coalesced below the limit.
+ */
+@ExtendWith(MockitoExtension.class)
+class SlowConsumerSessionDecoratorTest {
+
+    private static final String RESYNC_FRAME = "MESSAGE\nresync:true\n";
+
+    @Mock
+    private WebSocketSession delegate;
+
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService sender = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void blockTheFirstSend() throws Exception {
+        doAnswer(invocation -> {
+            if (delivered.isEmpty()) {
+                sending.countDown();
+                release.await(10, TimeUnit.SECONDS); // The client stops reading.
+            }
+            delivered.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(delegate).sendMessage(any());
+    }
+
+    @AfterEach
+    void stopSender() {
+        release.countDown();
+        sender.shutdownNow();
+    }
+
+    @Test
+    void coalescesTheEventsOfASlowClientIntoOneResyncMarkerPerSubscription() throws Exception {
+        SlowConsumerSessionDecorator session = decorator(SlowConsumerSessionDecorator.Policy.COALESCE);
+        Future<?> first = startBlockedSend(session);
+
+        // Events 2 to 5 fit in the buffer; event 6 exceeds it and triggers coalescing.
+        for (int seq = 2; seq <= 6; seq++) {
+            session.sendMessage(event(seq, seq % 2 == 0 ? "sub-0" : "sub-1"));
+        }
+        assertThat(session.getQueueDepth()).isEqualTo(2);
+        assertThat(session.getDroppedCount()).isEqualTo(5);
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        assertThat(delivered).containsExactly(
+                payload(1, "sub-0"),
+                RESYNC_FRAME + payload(6, "sub-0").substring("MESSAGE\n".length()),
+                RESYNC_FRAME + payload(5, "sub-1").substring("MESSAGE\n".length()));
+        assertThat(session.getQueueDepth()).isZero();
+        assertThat(session.getSentCount()).isEqualTo(3);
+    }
+
+    @Test
+    void coalescingAgainKeepsTheMarkerAndCountsEachEventOnce() throws Exception {
+        SlowConsumerSessionDecorator session = decorator(SlowConsumerSessionDecorator.Policy.COALESCE);
+        Future<?> first = startBlockedSend(session);
+
+        for (int seq = 2; seq <= 10; seq++) {
+            session.sendMessage(event(seq, "sub-0"));
+        }
+        // Events 2 to 6 become marker(6); marker(6) and events 7 to 10 become marker(10).
+        assertThat(session.getQueueDepth()).isEqualTo(1);
+        assertThat(session.getDroppedCount()).isEqualTo(9);
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        assertThat(delivered).containsExactly(
+                payload(1, "sub-0"),
+                RESYNC_FRAME + payload(10, "sub-0").substring("MESSAGE\n".length()));
+    }
+
+    @Test
+    void disconnectsWhenUnsequencedFramesKeepTheBufferOverTheLimit() throws Exception {
+        SlowConsumerSessionDecorator session = decorator(SlowConsumerSessionDecorator.Policy.COALESCE);
+        Future<?> first = startBlockedSend(session);
+
+        for (int i = 2; i <= 5; i++) {
+            session.sendMessage(receipt(i));
+        }
+        assertThatThrownBy(() -> session.sendMessage(receipt(6)))
+                .isInstanceOf(SessionLimitExceededException.class)
+                .hasMessageContaining("after coalescing");
+
+        session.sendMessage(event(7, "sub-0")); // Ignored once the session is given up.
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        assertThat(delivered).containsExactly(payload(1, "sub-0"));
+        assertThat(session.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void disconnectPolicyNeverCoalesces() throws Exception {
+        SlowConsumerSessionDecorator session = decorator(SlowConsumerSessionDecorator.Policy.DISCONNECT);
+        Future<?> first = startBlockedSend(session);
+
+        for (int seq = 2; seq <= 5; seq++) {
+            session.sendMessage(event(seq, "sub-0"));
+        }
+        assertThatThrownBy(() -> session.sendMessage(event(6, "sub-0")))
+                .isInstanceOf(SessionLimitExceededException.class);
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        assertThat(delivered).containsExactly(payload(1, "sub-0"));
+        assertThat(session.getDroppedCount()).isZero();
+    }
+
+    // A session whose buffer holds four and a half events; the send time limit never applies.
+    private SlowConsumerSessionDecorator decorator(SlowConsumerSessionDecorator.Policy policy) {
+        int frameLength = event(1, "sub-0").getPayloadLength();
+        return new SlowConsumerSessionDecorator(delegate, 60_000, frameLength * 9 / 2, policy);
+    }
+
+    // Sends event 1 on another thread and waits until the client blocks on it.
+    private Future<?> startBlockedSend(SlowConsumerSessionDecorator session) throws InterruptedException {
+        Future<?> first = sender.submit(() -> {
+            session.sendMessage(event(1, "sub-0"));
+            return null;
+        });
+        assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+        return first;
+    }
+
+    private static WebSocketMessage<?> event(int seq, String subscription) {
+        return new TextMessage(payload(seq, subscription));
+    }
+
+    private static String payload(int seq, String subscription) {
+        return "MESSAGE\nseq:" + seq + "\nsubscription:" + subscription + "\ndestination:/topic/orders\n\n{}\u0000";
+    }
+
+    private static WebSocketMessage<?> receipt(int id) {
+        return new TextMessage("RECEIPT\nreceipt-id:" + id + "\n" + "x".repeat(40) + "\n\n\u0000");
+    }
+}
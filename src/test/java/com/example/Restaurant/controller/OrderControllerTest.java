@@ -0,0 +1,85 @@
+package com.example.Restaurant.controller;
+
+import com.example.Restaurant.model.OrderStatus;
+import com.example.Restaurant.services.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web tests for the order status endpoint: 200 on success, 409 Conflict when the
+ * transition is not allowed or another screen changed the order first, 400 otherwise.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private OrderController orderController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+    }
+
+    @Test
+    void updatesStatus() throws Exception {
+        mockMvc.perform(post("/orders/update-status").param("orderId", "7").param("status", "Ready"))
+                .andExpect(status().isOk());
+
+        verify(orderService).updateOrderStatus(7L, OrderStatus.READY);
+    }
+
+    @Test
+    void concurrentChangeIsAConflict() throws Exception {
+        doThrow(new IllegalStateException("Order 7 was changed by someone else, please refresh"))
+                .when(orderService).updateOrderStatus(7L, OrderStatus.READY);
+
+        mockMvc.perform(post("/orders/update-status").param("orderId", "7").param("status", "Ready"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string(containsString("changed by someone else")));
+    }
+
+    @Test
+    void disallowedTransitionIsAConflict() throws Exception {
+        doThrow(new IllegalStateException("Cannot change order status from Delivered to Ready"))
+                .when(orderService).updateOrderStatus(7L, OrderStatus.READY);
+
+        mockMvc.perform(post("/orders/update-status").param("orderId", "7").param("status", "Ready"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void insufficientStockIsABadRequest() throws Exception {
+        doThrow(new RuntimeException("Error updating stock: Insufficient ingredient stock!"))
+                .when(orderService).updateOrderStatus(7L, OrderStatus.READY);
+
+        mockMvc.perform(post("/orders/update-status").param("orderId", "7").param("status", "Ready"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownStatusIsABadRequest() throws Exception {
+        mockMvc.perform(post("/orders/update-status").param("orderId", "7").param("status", "Cancelled"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.Restaurant.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for Cart: item snapshots and removing only the checked-out quantities.
+ */
+class CartTest {
+
+    @Test
+    void addMergesLinesOfTheSameFood() {
+        Cart cart = new Cart();
+        cart.add(food(1L), 2);
+        cart.add(food(1L), 3);
+        cart.add(food(2L), 1);
+
+        assertThat(cart.getItems()).extracting(CartItem::getQuantity).containsExactly(5, 1);
+        assertThat(cart.getItemCount()).isEqualTo(6);
+    }
+
+    @Test
+    void addRejectsNonPositiveQuantities() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Cart().add(food(1L), 0));
+    }
+
+    @Test
+    void itemsAreASnapshot() {
+        Cart cart = new Cart();
+        cart.add(food(1L), 2);
+        List<CartItem> snapshot = cart.getItems();
+
+        cart.add(food(1L), 3);
+        snapshot.get(0).setQuantity(99);
+
+        assertThat(snapshot.get(0).getQuantity()).isEqualTo(99);
+        assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void removeAllKeepsQuantitiesAddedAfterTheSnapshot() {
+        Cart cart = new Cart();
+        cart.add(food(1L), 2);
+        cart.add(food(2L), 1);
+        List<CartItem> checkedOut = cart.getItems();
+
+        cart.add(food(1L), 3); // Added while the order is being placed.
+        cart.removeAll(checkedOut);
+
+        assertThat(cart.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getFood().getId()).isEqualTo(1L);
+            assertThat(item.getQuantity()).isEqualTo(3);
+        });
+        assertThat(cart.getItemCount()).isEqualTo(3);
+    }
+
+    @Test
+    void removeAllIgnoresLinesRemovedOrReducedMeanwhile() {
+        Cart cart = new Cart();
+        cart.add(food(1L), 4);
+        cart.add(food(2L), 1);
+        List<CartItem> checkedOut = cart.getItems();
+
+        cart.update(checkedOut.get(0).getId(), 1); // Reduced below the checked-out quantity.
+        cart.update(checkedOut.get(1).getId(), 0); // Removed.
+        cart.removeAll(checkedOut);
+
+        assertThat(cart.isEmpty()).isTrue();
+        assertThat(cart.getItemCount()).isZero();
+    }
+
+    private static Food food(Long id) {
+        Food food = new Food();
+        food.setId(id);
+        food.setName("Food " + id);
+        food.setPrice(10.0);
+        return food;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.Restaurant.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+/**
+ * Unit tests for the OrderStatus transition table and label parsing.
+ */
+class OrderStatusTest {
+
+    @ParameterizedTest(name = "{0} -> {1}: {2}")
+    @CsvSource({
+            "NEW, NEW, false",
+            "NEW, PREPARING, true",
+            "NEW, READY, true",
+            "NEW, DELIVERED, false",
+            "PREPARING, NEW, false",
+            "PREPARING, PREPARING, false",
+            "PREPARING, READY, true",
+            "PREPARING, DELIVERED, false",
+            "READY, NEW, false",
+            "READY, PREPARING, false",
+            "READY, READY, false",
+            "READY, DELIVERED, true",
+            "DELIVERED, NEW, false",
+            "DELIVERED, PREPARING, false",
+            "DELIVERED, READY, false",
+            "DELIVERED, DELIVERED, false"
+    })
+    void transitionTable(OrderStatus from, OrderStatus to, boolean allowed) {
+        assertThat(from.canTransitionTo(to)).isEqualTo(allowed);
+        if (allowed) {
+            assertThatNoException().isThrownBy(() -> from.checkTransitionTo(to));
+        } else {
+            assertThatIllegalStateException().isThrownBy(() -> from.checkTransitionTo(to))
+                    .withMessage("Cannot change order status from " + from.getLabel() + " to " + to.getLabel());
+        }
+    }
+
+    @Test
+    void activeStatusesExcludeDelivered() {
+        assertThat(OrderStatus.active()).containsExactlyInAnyOrder(OrderStatus.NEW, OrderStatus.PREPARING, OrderStatus.READY);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Pending, NEW",
+            "pending, NEW",
+            "NEW, NEW",
+            "Preparing, PREPARING",
+            "ready, READY",
+            "Delivered, DELIVERED"
+    })
+    void parsesLabelsAndNamesIgnoringCase(String value, OrderStatus expected) {
+        assertThat(OrderStatus.fromLabel(value)).isEqualTo(expected);
+    }
+
+    @Test
+    void rejectsUnknownStatus() {
+        assertThatIllegalArgumentException().isThrownBy(() -> OrderStatus.fromLabel("Cancelled"))
+                .withMessage("Invalid order status: Cancelled");
+    }
+}
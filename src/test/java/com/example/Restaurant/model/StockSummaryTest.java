@@ -0,0 +1,46 @@
+package com.example.Restaurant.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for StockSummary: status counts and the two low-stock rules.
+ */
+class StockSummaryTest {
+
+    @Test
+    void countsEveryStatusAndSeparatesAtThresholdFromBelowIt() {
+        Map<Long, Double> stockLevels = new TreeMap<>(Map.of(
+                1L, 0.0,   // Out of stock.
+                2L, 3.0,   // Below the threshold.
+                3L, 5.0,   // Exactly at the threshold.
+                4L, 8.0,   // Medium.
+                5L, 20.0)); // Well stocked.
+        Map<Long, Double> thresholds = Map.of(1L, 5.0, 2L, 5.0, 3L, 5.0, 4L, 5.0, 5L, 5.0);
+
+        StockSummary summary = StockSummary.of(stockLevels, thresholds);
+
+        assertThat(summary.getTotalCount()).isEqualTo(5);
+        assertThat(summary.getStatusCounts()).containsExactly(
+                Map.entry("OUT_OF_STOCK", 1L), Map.entry("LOW_STOCK", 2L),
+                Map.entry("MEDIUM_STOCK", 1L), Map.entry("WELL_STOCKED", 1L));
+        assertThat(summary.getOutOfStockCount()).isEqualTo(1);
+        assertThat(summary.getLowStockCount()).isEqualTo(3);
+        assertThat(summary.getWellStockedCount()).isEqualTo(2);
+        assertThat(summary.getLowStockIds()).containsExactly(1L, 2L, 3L);
+        assertThat(summary.getBelowThresholdIds()).containsExactly(1L, 2L); // The threshold page lists stock < threshold only.
+    }
+
+    @Test
+    void missingThresholdCountsAsZero() {
+        StockSummary summary = StockSummary.of(Map.of(1L, 0.0), Map.of());
+
+        assertThat(summary.getOutOfStockCount()).isEqualTo(1);
+        assertThat(summary.getLowStockIds()).containsExactly(1L);
+        assertThat(summary.getBelowThresholdIds()).isEmpty();
+    }
+}
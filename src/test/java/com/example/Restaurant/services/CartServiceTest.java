@@ -0,0 +1,92 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.Cart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.web.session.HttpSessionDestroyedEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CartService: carts follow the session across an ID change, are dropped
+ * with the session, and are bounded by a time to live and a least-recently-used limit.
+ */
+class CartServiceTest {
+
+    private CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        cartService = new CartService();
+        ReflectionTestUtils.setField(cartService, "maxCarts", 2);
+        ReflectionTestUtils.setField(cartService, "ttlMinutes", 120L);
+    }
+
+    @Test
+    void getCartReturnsTheSameCartForTheSameSession() {
+        MockHttpSession session = new MockHttpSession();
+
+        assertThat(cartService.getCart(session)).isSameAs(cartService.getCart(session));
+        assertThat(cartService.getCart(new MockHttpSession())).isNotSameAs(cartService.getCart(session));
+    }
+
+    @Test
+    void findCartDoesNotCreateACart() {
+        MockHttpSession session = new MockHttpSession();
+
+        assertThat(cartService.findCart(session)).isEmpty();
+        assertThat(session.getAttribute(CartService.CART_ID_ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    void cartSurvivesTheSessionIdChangeOnLogin() {
+        MockHttpSession session = new MockHttpSession();
+        Cart cart = cartService.getCart(session);
+
+        session.changeSessionId(); // What session fixation protection does on login.
+
+        assertThat(cartService.findCart(session)).containsSame(cart);
+    }
+
+    @Test
+    void destroyedSessionDropsItsCart() {
+        MockHttpSession session = new MockHttpSession();
+        Cart cart = cartService.getCart(session);
+
+        cartService.sessionDestroyed(new HttpSessionDestroyedEvent(session));
+
+        assertThat(cartService.findCart(session)).isEmpty();
+        assertThat(cartService.getCart(session)).isNotSameAs(cart);
+    }
+
+    @Test
+    void expiredCartsAreEvicted() throws InterruptedException {
+        MockHttpSession session = new MockHttpSession();
+        cartService.getCart(session);
+        ReflectionTestUtils.setField(cartService, "ttlMinutes", 0L);
+        Thread.sleep(5);
+
+        cartService.evictExpired();
+
+        assertThat(cartService.findCart(session)).isEmpty();
+    }
+
+    @Test
+    void leastRecentlyUsedCartIsEvictedWhenFull() throws InterruptedException {
+        MockHttpSession first = new MockHttpSession();
+        MockHttpSession second = new MockHttpSession();
+        Cart firstCart = cartService.getCart(first);
+        Thread.sleep(5);
+        cartService.getCart(second);
+        Thread.sleep(5);
+        cartService.findCart(first); // Now the second cart is the least recently used.
+        Thread.sleep(5);
+
+        cartService.getCart(new MockHttpSession());
+
+        assertThat(cartService.findCart(first)).containsSame(firstCart);
+        assertThat(cartService.findCart(second)).isEmpty();
+    }
+}
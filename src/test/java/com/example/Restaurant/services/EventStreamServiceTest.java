@@ -0,0 +1,126 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.EventReplay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for EventStreamService: sequence numbering, replay of buffered events and the
+ * snapshot fallback at the ring-buffer boundary and on an epoch mismatch.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventStreamServiceTest {
+
+    private static final String ORDERS = "/topic/orders";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private EventStreamService eventStreamService;
+
+    private final AtomicInteger snapshots = new AtomicInteger();
+    private final Supplier<Object> snapshot = () -> "snapshot-" + snapshots.incrementAndGet();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(eventStreamService, "replayBufferSize", 4);
+    }
+
+    @Test
+    void publishNumbersEventsPerDestinationAndSendsTheHeaders() {
+        assertThat(eventStreamService.publish(ORDERS, "a")).isEqualTo(1);
+        assertThat(eventStreamService.publish(ORDERS, "b")).isEqualTo(2);
+        assertThat(eventStreamService.publish("/topic/stock", "c")).isEqualTo(1);
+
+        verify(messagingTemplate).convertAndSend(ORDERS, (Object) "b",
+                Map.of(EventStreamService.SEQ_HEADER, "2", EventStreamService.EPOCH_HEADER, eventStreamService.getEpoch()));
+    }
+
+    @Test
+    void replayReturnsTheMissedEventsWhileTheyAreBuffered() {
+        publish(6); // The ring of 4 holds events 3 to 6.
+
+        EventReplay replay = eventStreamService.replay(ORDERS, eventStreamService.getEpoch(), 2, snapshot);
+
+        assertThat(replay.seq()).isEqualTo(6);
+        assertThat(replay.snapshot()).isNull();
+        assertThat(replay.events()).containsExactly(
+                new EventReplay.Entry(3, "event-3"), new EventReplay.Entry(4, "event-4"),
+                new EventReplay.Entry(5, "event-5"), new EventReplay.Entry(6, "event-6"));
+        assertThat(snapshots).hasValue(0);
+    }
+
+    @Test
+    void replayFallsBackToASnapshotOnceAMissedEventIsOverwritten() {
+        publish(6); // Event 2 has been overwritten by event 6.
+
+        EventReplay replay = eventStreamService.replay(ORDERS, eventStreamService.getEpoch(), 1, snapshot);
+
+        assertThat(replay.events()).isNull();
+        assertThat(replay.snapshot()).isEqualTo("snapshot-1");
+        assertThat(replay.seq()).isEqualTo(6);
+    }
+
+    @Test
+    void replayOfAnUpToDateClientIsEmpty() {
+        publish(6);
+
+        EventReplay replay = eventStreamService.replay(ORDERS, eventStreamService.getEpoch(), 6, snapshot);
+
+        assertThat(replay.events()).isEmpty();
+        assertThat(replay.snapshot()).isNull();
+    }
+
+    @Test
+    void replayFallsBackToASnapshotOnAnEpochMismatch() {
+        publish(3);
+
+        EventReplay replay = eventStreamService.replay(ORDERS, "previous-run", 2, snapshot);
+
+        assertThat(replay.events()).isNull();
+        assertThat(replay.snapshot()).isEqualTo("snapshot-1");
+        assertThat(replay.epoch()).isEqualTo(eventStreamService.getEpoch());
+        assertThat(replay.seq()).isEqualTo(3);
+    }
+
+    @Test
+    void replayFallsBackToASnapshotWhenTheClientIsAheadOfTheStream() {
+        publish(3);
+
+        EventReplay replay = eventStreamService.replay(ORDERS, eventStreamService.getEpoch(), 5, snapshot);
+
+        assertThat(replay.snapshot()).isEqualTo("snapshot-1");
+        assertThat(replay.seq()).isEqualTo(3);
+    }
+
+    @Test
+    void replayNeverContainsEventsOfAnotherDestination() {
+        publish(2);
+        eventStreamService.publish("/topic/stock", "stock-1");
+
+        EventReplay replay = eventStreamService.replay(ORDERS, eventStreamService.getEpoch(), 0, snapshot);
+
+        assertThat(replay.events()).extracting(EventReplay.Entry::event).isEqualTo(List.of("event-1", "event-2"));
+    }
+
+    private void publish(int count) {
+        for (int i = 1; i <= count; i++) {
+            eventStreamService.publish(ORDERS, "event-" + i);
+        }
+    }
+}
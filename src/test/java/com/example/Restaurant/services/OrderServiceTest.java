@@ -0,0 +1,150 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.config.StompDestinations;
+import com.example.Restaurant.model.Order;
+import com.example.Restaurant.model.OrderStatus;
+import com.example.Restaurant.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OrderService.updateOrderStatus: the compare-and-set always runs before
+ * any stock is reserved, so a click that loses the race never touches the ledger.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    private static final Long ORDER_ID = 42L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private BillOfMaterialsService billOfMaterialsService;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+
+    @Mock
+    private StockBroadcastService stockBroadcastService;
+
+    @Mock
+    private OrderEventService orderEventService;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    @Test
+    void lostCompareAndSetReservesNothing() {
+        givenStatus(OrderStatus.PREPARING, 3L);
+        when(orderRepository.compareAndSetStatus(ORDER_ID, OrderStatus.PREPARING, 3L, OrderStatus.READY, null)).thenReturn(0);
+
+        assertThatIllegalStateException().isThrownBy(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.READY))
+                .withMessageContaining("changed by someone else");
+
+        verifyNoInteractions(stockLedgerService, orderEventService);
+    }
+
+    @Test
+    void readyReservesOnlyAfterTheCompareAndSet() {
+        givenStatus(OrderStatus.PREPARING, 3L);
+        when(orderRepository.compareAndSetStatus(ORDER_ID, OrderStatus.PREPARING, 3L, OrderStatus.READY, null)).thenReturn(1);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order()));
+        when(stockLedgerService.reserve(any())).thenReturn(Optional.empty());
+
+        orderService.updateOrderStatus(ORDER_ID, OrderStatus.READY);
+
+        InOrder inOrder = inOrder(orderRepository, stockLedgerService, orderEventService);
+        inOrder.verify(orderRepository).compareAndSetStatus(ORDER_ID, OrderStatus.PREPARING, 3L, OrderStatus.READY, null);
+        inOrder.verify(stockLedgerService).reserve(Map.of());
+        inOrder.verify(orderEventService).publishStatusChanged(ORDER_ID, OrderStatus.READY, 4L);
+    }
+
+    @Test
+    void shortfallFailsTheUpdateAndAlertsWithoutAName() {
+        givenStatus(OrderStatus.NEW, 0L);
+        when(orderRepository.compareAndSetStatus(ORDER_ID, OrderStatus.NEW, 0L, OrderStatus.READY, null)).thenReturn(1);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order()));
+        when(stockLedgerService.reserve(any())).thenReturn(Optional.of(new StockLedgerService.Shortfall(5L, 2.0, 1.0)));
+        when(stockLedgerService.getName(5L)).thenReturn(null); // Deleted meanwhile.
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.READY))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Insufficient ingredient stock");
+
+        ArgumentCaptor<Runnable> alert = ArgumentCaptor.forClass(Runnable.class);
+        verify(domainEventPublisher).publishAfterCompletion(alert.capture());
+        alert.getValue().run();
+        verify(messagingTemplate).convertAndSend(StompDestinations.ADMIN_ALERTS, (Object) Map.of(
+                "type", "INSUFFICIENT_STOCK",
+                "orderId", ORDER_ID,
+                "ingredient", "Ingredient #5",
+                "required", 2.0,
+                "available", 1.0));
+        verify(orderEventService, never()).publishStatusChanged(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void disallowedTransitionIsRejectedBeforeAnyWrite() {
+        givenStatus(OrderStatus.DELIVERED, 5L);
+
+        assertThatIllegalStateException().isThrownBy(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.READY));
+
+        verify(orderRepository, never()).compareAndSetStatus(any(), any(), any(), any(), any());
+        verifyNoInteractions(stockLedgerService);
+    }
+
+    @Test
+    void deliveredDoesNotReserveStock() {
+        givenStatus(OrderStatus.READY, 4L);
+        when(orderRepository.compareAndSetStatus(eq(ORDER_ID), eq(OrderStatus.READY), eq(4L), eq(OrderStatus.DELIVERED), any())).thenReturn(1);
+
+        orderService.updateOrderStatus(ORDER_ID, OrderStatus.DELIVERED);
+
+        verifyNoInteractions(stockLedgerService);
+        verify(orderEventService).publishStatusChanged(ORDER_ID, OrderStatus.DELIVERED, 5L);
+    }
+
+    private void givenStatus(OrderStatus status, Long version) {
+        OrderRepository.StatusView view = mock(OrderRepository.StatusView.class);
+        when(view.getStatus()).thenReturn(status);
+        lenient().when(view.getVersion()).thenReturn(version); // Not read when the transition is rejected.
+        when(orderRepository.findStatusById(ORDER_ID)).thenReturn(Optional.of(view));
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setId(ORDER_ID);
+        order.setOrderItems(new ArrayList<>());
+        return order;
+    }
+}
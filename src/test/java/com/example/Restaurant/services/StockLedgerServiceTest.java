@@ -0,0 +1,231 @@
+package com.example.Restaurant.services;
+
+import com.example.Restaurant.model.Ingredient;
+import com.example.Restaurant.repository.IngredientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StockLedgerService: all-or-nothing reservations, release on rollback,
+ * retry of failed flushes and concurrent deductions.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockLedgerServiceTest {
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private StockLedgerService stockLedgerService;
+
+    @BeforeEach
+    void loadLedger() {
+        when(ingredientRepository.findAll()).thenReturn(List.of(ingredient(1L, "Rice", 5.0), ingredient(2L, "Egg", 1.0)));
+        stockLedgerService.loadStock();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserveDeductsNothingWhenOneIngredientIsShort() {
+        var shortfall = stockLedgerService.reserve(Map.of(1L, 2.0, 2L, 2.0));
+
+        assertThat(shortfall).hasValueSatisfying(s -> {
+            assertThat(s.getIngredientId()).isEqualTo(2L);
+            assertThat(s.getRequired()).isEqualTo(2.0);
+            assertThat(s.getAvailable()).isEqualTo(1.0);
+        });
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(5.0);
+        assertThat(stockLedgerService.getStock(2L)).isEqualTo(1.0);
+    }
+
+    @Test
+    void reserveDeductsEveryIngredientWhenAllAreAvailable() {
+        assertThat(stockLedgerService.reserve(Map.of(1L, 2.0, 2L, 1.0))).isEmpty();
+
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(3.0);
+        assertThat(stockLedgerService.getStock(2L)).isEqualTo(0.0);
+    }
+
+    @Test
+    void reserveLoadsUntrackedIngredientsWithoutHoldingTheLock() {
+        Object lock = ReflectionTestUtils.getField(stockLedgerService, "lock");
+        when(ingredientRepository.findAllById(List.of(3L))).thenAnswer(invocation -> {
+            assertThat(Thread.holdsLock(lock)).isFalse();
+            return List.of(ingredient(3L, "Tofu", 4.0));
+        });
+
+        assertThat(stockLedgerService.reserve(Map.of(3L, 1.5))).isEmpty();
+        assertThat(stockLedgerService.getStock(3L)).isEqualTo(2.5);
+    }
+
+    @Test
+    void rollbackReleasesTheReservation() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(stockLedgerService.reserve(Map.of(1L, 2.0))).isEmpty();
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(3.0);
+        assertThat(stockLedgerService.getCommittedStock(1L)).isEqualTo(5.0); // Not shown to others before commit.
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(5.0);
+        assertThat(stockLedgerService.getCommittedStock(1L)).isEqualTo(5.0);
+    }
+
+    @Test
+    void commitKeepsTheReservation() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(stockLedgerService.reserve(Map.of(1L, 2.0))).isEmpty();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(3.0);
+        assertThat(stockLedgerService.getCommittedStock(1L)).isEqualTo(3.0);
+        assertThat(stockLedgerService.getCommittedStockLevels()).containsEntry(1L, 3.0);
+    }
+
+    @Test
+    void failedFlushIsRetriedWithLaterDeductions() {
+        doThrow(new IllegalStateException("database down"))
+                .doAnswer(invocation -> runCallback(invocation.getArgument(0)))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        stockLedgerService.reserve(Map.of(1L, 2.0));
+        stockLedgerService.flush();
+        stockLedgerService.reserve(Map.of(1L, 1.0));
+        stockLedgerService.flush();
+
+        verify(ingredientRepository).deductStock(1L, 3.0);
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(2.0);
+    }
+
+    @Test
+    void flushSkipsDeductionsOfIngredientsDeletedMeanwhile() {
+        doThrow(new IllegalStateException("database down"))
+                .doAnswer(invocation -> runCallback(invocation.getArgument(0)))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        stockLedgerService.reserve(Map.of(1L, 2.0));
+        stockLedgerService.flush();
+        stockLedgerService.remove(1L);
+        stockLedgerService.flush();
+
+        verify(ingredientRepository, never()).deductStock(anyLong(), anyDouble());
+    }
+
+    @Test
+    void saveDuringFlushIsWrittenAbsolutelyByTheNextFlush() {
+        doAnswer(invocation -> runCallback(invocation.getArgument(0))).when(transactionTemplate).executeWithoutResult(any());
+        when(ingredientRepository.deductStock(1L, 2.0)).thenAnswer(invocation -> {
+            stockLedgerService.track(ingredient(1L, "Rice", 50.0)); // Committed while the deduction is being written.
+            return 1;
+        });
+
+        stockLedgerService.reserve(Map.of(1L, 2.0));
+        stockLedgerService.flush();
+        stockLedgerService.flush();
+
+        verify(ingredientRepository).setStock(1L, 50.0);
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(50.0);
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws InterruptedException {
+        doAnswer(invocation -> runCallback(invocation.getArgument(0))).when(transactionTemplate).executeWithoutResult(any());
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (stockLedgerService.reserve(Map.of(1L, 0.5)).isEmpty()) {
+                    reserved.incrementAndGet();
+                }
+                if (reserved.get() % 3 == 0) {
+                    stockLedgerService.flush(); // Flushes interleave with the reservations.
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        stockLedgerService.flush();
+
+        assertThat(reserved.get()).isEqualTo(10);
+        assertThat(stockLedgerService.getStock(1L)).isEqualTo(0.0);
+        Double written = mockingDetails(ingredientRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("deductStock"))
+                .mapToDouble(invocation -> invocation.getArgument(1))
+                .sum();
+        assertThat(written).isEqualTo(5.0);
+    }
+
+    private static Object runCallback(Consumer<TransactionStatus> callback) {
+        callback.accept(null);
+        return null;
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        });
+    }
+
+    private static Ingredient ingredient(Long id, String name, double stock) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(id);
+        ingredient.setName(name);
+        ingredient.setCurrentStock(stock);
+        ingredient.setThreshold(1.0);
+        return ingredient;
+    }
+}